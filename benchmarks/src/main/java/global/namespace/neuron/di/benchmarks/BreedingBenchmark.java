@@ -0,0 +1,86 @@
+/*
+ * Copyright © 2016 - 2021 Schlichtherle IT Services
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package global.namespace.neuron.di.benchmarks;
+
+import global.namespace.neuron.di.java.Incubator;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the cost of breeding a neuron in comparison to constructing a hand-written implementation.
+ * Run with {@code sbt bench} to get the allocation rate reported, too.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@Fork(1)
+@Measurement(iterations = 5, time = 1)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@State(Scope.Benchmark)
+@Warmup(iterations = 5, time = 1)
+public class BreedingBenchmark {
+
+    private static final String FORMAT = "Hello %s!";
+
+    private Formatter formatter;
+    private Incubator.Blueprint<Formatter> blueprint;
+    private FormatterValues delegate;
+
+    @Setup
+    public void setup() {
+        formatter = Incubator.wire(Formatter.class).bind(Formatter::theFormat).to(FORMAT).breed();
+        blueprint = Incubator.wire(Formatter.class).bind(Formatter::theFormat).to(FORMAT).compile();
+        delegate = new FormatterValues();
+    }
+
+    @Benchmark
+    public Formatter construct() {
+        return new Formatter() {
+
+            @Override
+            public String theFormat() { return FORMAT; }
+        };
+    }
+
+    @Benchmark
+    public Greeting breed() {
+        return Incubator.breed(Greeting.class);
+    }
+
+    @Benchmark
+    public Formatter wireBindBreed() {
+        return Incubator.wire(Formatter.class).bind(Formatter::theFormat).to(FORMAT).breed();
+    }
+
+    @Benchmark
+    public Formatter blueprintBreed() {
+        return blueprint.breed();
+    }
+
+    @Benchmark
+    public Formatter using() {
+        return Incubator.wire(Formatter.class).using(delegate);
+    }
+
+    @Benchmark
+    public String message() {
+        return Incubator.wire(Greeting.class).bind(Greeting::formatter).to(formatter).breed().message("world");
+    }
+
+    static final class FormatterValues {
+
+        final String theFormat = FORMAT;
+    }
+}
@@ -0,0 +1,164 @@
+/*
+ * Copyright © 2016 - 2021 Schlichtherle IT Services
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package global.namespace.neuron.di.benchmarks;
+
+import global.namespace.neuron.di.java.Caching;
+import global.namespace.neuron.di.java.CachingScope;
+import global.namespace.neuron.di.java.DependencyProvider;
+import global.namespace.neuron.di.java.Incubator;
+import global.namespace.neuron.di.java.Neuron;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.TimeUnit;
+
+import static global.namespace.neuron.di.java.CachingStrategy.*;
+
+/**
+ * Measures the cost of calling a synapse method with each caching strategy.
+ * All threads share the same neuron, so that the caching strategies which share the cached value between threads
+ * compete for it.
+ * The nested subclasses run the same benchmarks with 1, 4, 16 and 64 threads.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@Fork(1)
+@Measurement(iterations = 5, time = 1)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@State(Scope.Benchmark)
+@Warmup(iterations = 5, time = 1)
+public abstract class CachingStrategyBenchmark {
+
+    private Synapses synapses;
+
+    @Setup
+    public void setup() {
+        final DependencyProvider<Object> provider = Object::new;
+        synapses = Incubator
+                .wire(Synapses.class)
+                .bind(Synapses::disabled).to(provider)
+                .bind(Synapses::notThreadSafe).to(provider)
+                .bind(Synapses::threadSafe).to(provider)
+                .bind(Synapses::threadLocal).to(provider)
+                .bind(Synapses::expiring).to(provider)
+                .bind(Synapses::soft).to(provider)
+                .bind(Synapses::weak).to(provider)
+                .bind(Synapses::scoped).to(provider)
+                .bind(Synapses::async).toAsync(provider)
+                .breed();
+    }
+
+    @Benchmark
+    public Object disabled() {
+        return synapses.disabled();
+    }
+
+    /**
+     * This caching strategy is not thread-safe, so the result is only meaningful when running with one thread.
+     */
+    @Benchmark
+    public Object notThreadSafe() {
+        return synapses.notThreadSafe();
+    }
+
+    @Benchmark
+    public Object threadSafe() {
+        return synapses.threadSafe();
+    }
+
+    @Benchmark
+    public Object threadLocal() {
+        return synapses.threadLocal();
+    }
+
+    @Benchmark
+    public Object expiring() {
+        return synapses.expiring();
+    }
+
+    @Benchmark
+    public Object soft() {
+        return synapses.soft();
+    }
+
+    @Benchmark
+    public Object weak() {
+        return synapses.weak();
+    }
+
+    /**
+     * Includes the cost of entering and exiting a caching scope and calls the synapse method twice within it, so that
+     * both a cache miss and a cache hit get measured.
+     */
+    @Benchmark
+    public Object scoped() throws Exception {
+        return CachingScope.call(() -> {
+            synapses.scoped();
+            return synapses.scoped();
+        });
+    }
+
+    @Benchmark
+    public Object async() {
+        return synapses.async().toCompletableFuture().join();
+    }
+
+    @Neuron
+    public interface Synapses {
+
+        @Caching(DISABLED)
+        Object disabled();
+
+        @Caching(NOT_THREAD_SAFE)
+        Object notThreadSafe();
+
+        @Caching(THREAD_SAFE)
+        Object threadSafe();
+
+        @Caching(THREAD_LOCAL)
+        Object threadLocal();
+
+        @Caching(EXPIRING)
+        Object expiring();
+
+        @Caching(SOFT)
+        Object soft();
+
+        @Caching(WEAK)
+        Object weak();
+
+        @Caching(SCOPED)
+        Object scoped();
+
+        @Caching(ASYNC)
+        CompletionStage<Object> async();
+    }
+
+    @Threads(1)
+    public static class Threads1 extends CachingStrategyBenchmark {
+    }
+
+    @Threads(4)
+    public static class Threads4 extends CachingStrategyBenchmark {
+    }
+
+    @Threads(16)
+    public static class Threads16 extends CachingStrategyBenchmark {
+    }
+
+    @Threads(64)
+    public static class Threads64 extends CachingStrategyBenchmark {
+    }
+}
@@ -0,0 +1,59 @@
+/*
+ * Copyright © 2016 - 2021 Schlichtherle IT Services
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package global.namespace.neuron.di.benchmarks;
+
+import com.google.inject.Guice;
+import com.google.inject.Provider;
+import global.namespace.neuron.di.guice.java.NeuronModule;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the cost of getting a neuron from the {@code NeuronProvider} which gets bound by a {@link NeuronModule}.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@Fork(1)
+@Measurement(iterations = 5, time = 1)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@State(Scope.Benchmark)
+@Warmup(iterations = 5, time = 1)
+public class GuiceBenchmark {
+
+    private Provider<Greeting> provider;
+
+    @Setup
+    public void setup() {
+        provider = Guice.createInjector(new NeuronModule() {
+
+            @Override
+            protected void configure() {
+                bindNeurons(Greeting.class, Formatter.class);
+                bind(String.class).toInstance("Hello %s!");
+            }
+        }).getProvider(Greeting.class);
+    }
+
+    @Benchmark
+    public Greeting get() {
+        return provider.get();
+    }
+
+    @Benchmark
+    public String message() {
+        return provider.get().message("world");
+    }
+}
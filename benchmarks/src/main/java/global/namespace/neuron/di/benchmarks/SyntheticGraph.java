@@ -0,0 +1,177 @@
+/*
+ * Copyright © 2016 - 2021 Schlichtherle IT Services
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package global.namespace.neuron.di.benchmarks;
+
+import global.namespace.neuron.di.java.Caching;
+import global.namespace.neuron.di.java.CachingStrategy;
+import global.namespace.neuron.di.java.Neuron;
+import org.objectweb.asm.ClassWriter;
+import org.objectweb.asm.MethodVisitor;
+
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import static org.objectweb.asm.Opcodes.*;
+import static org.objectweb.asm.Type.getDescriptor;
+
+/**
+ * A graph of neuron interfaces which get generated at runtime and defined by their own class loader, so that breeding
+ * them always starts cold and each graph gets garbage collected as a whole.
+ * The neuron interfaces are arranged in {@code depth} layers of roughly equal size.
+ * Each neuron interface which is not in the last layer has {@code fanOut} synapse methods which return neuron
+ * interfaces in the next layer.
+ * Each neuron interface in the last layer has a single synapse method which returns an {@link Object}.
+ * The synapse methods get annotated with the caching strategies of the given mix in turn, counting across all neuron
+ * interfaces.
+ * The {@link CachingStrategy#ASYNC} caching strategy is not supported because the synapse methods don't return a
+ * {@link java.util.concurrent.CompletionStage}.
+ */
+final class SyntheticGraph {
+
+    private static final String NAME_PREFIX = "synthetic.Neuron";
+    private static final String CACHING_DESC = getDescriptor(Caching.class);
+    private static final String CACHING_STRATEGY_DESC = getDescriptor(CachingStrategy.class);
+    private static final String NEURON_DESC = getDescriptor(Neuron.class);
+    private static final String RETURNS_OBJECT_DESC = "()Ljava/lang/Object;";
+
+    private final int size, fanOut, depth;
+    private final CachingStrategy[] cachingMix;
+    private final Class<?>[] classes;
+
+    SyntheticGraph(final int size, final int fanOut, final int depth, final List<CachingStrategy> cachingMix) {
+        if (depth < 1 || size < depth || fanOut < 1 || cachingMix.isEmpty()
+                || cachingMix.contains(CachingStrategy.ASYNC)) {
+            throw new IllegalArgumentException("size=" + size + ", fanOut=" + fanOut + ", depth=" + depth
+                    + ", cachingMix=" + cachingMix);
+        }
+        this.size = size;
+        this.fanOut = fanOut;
+        this.depth = depth;
+        this.cachingMix = cachingMix.toArray(new CachingStrategy[0]);
+        this.classes = new Class<?>[size];
+        final Loader loader = new Loader();
+        for (int i = 0; i < size; i++) {
+            try {
+                classes[i] = Class.forName(NAME_PREFIX + i, true, loader);
+            } catch (ClassNotFoundException e) {
+                throw new AssertionError(e);
+            }
+        }
+    }
+
+    /**
+     * Parses the given caching mix, which is a list of caching strategy names separated by {@code +}, e.g.
+     * {@code "DISABLED+THREAD_SAFE"}.
+     */
+    static List<CachingStrategy> cachingMix(String spec) {
+        return Stream.of(spec.split("\\+")).map(String::trim).map(CachingStrategy::valueOf).collect(Collectors.toList());
+    }
+
+    int size() { return size; }
+
+    /** Returns the neuron interface in the first layer. */
+    Class<?> root() { return classes[0]; }
+
+    Class<?>[] classes() { return classes.clone(); }
+
+    private int layerStart(int layer) { return (int) ((long) layer * size / depth); }
+
+    private int layerOf(final int index) {
+        int layer = (int) ((long) index * depth / size);
+        while (index < layerStart(layer)) {
+            layer--;
+        }
+        while (layerStart(layer + 1) <= index) {
+            layer++;
+        }
+        return layer;
+    }
+
+    private byte[] bytes(final int index) {
+        final ClassWriter cw = new ClassWriter(0);
+        cw.visit(V1_8, ACC_PUBLIC | ACC_ABSTRACT | ACC_INTERFACE, internalName(index), null, "java/lang/Object",
+                null);
+        cw.visitAnnotation(NEURON_DESC, true).visitEnd();
+        final int layer = layerOf(index);
+        if (layer < depth - 1) {
+            final int start = layerStart(layer + 1), length = layerStart(layer + 2) - start;
+            for (int i = 0; i < fanOut; i++) {
+                final int edge = index * fanOut + i;
+                synapse(cw, i, "()L" + internalName(start + edge % length) + ";", edge);
+            }
+        } else {
+            synapse(cw, 0, RETURNS_OBJECT_DESC, index);
+        }
+        cw.visitEnd();
+        return cw.toByteArray();
+    }
+
+    private void synapse(final ClassWriter cw, final int index, final String desc, final int edge) {
+        final MethodVisitor mv = cw.visitMethod(ACC_PUBLIC | ACC_ABSTRACT, "synapse" + index, desc, null, null);
+        mv.visitAnnotation(CACHING_DESC, true)
+                .visitEnum("value", CACHING_STRATEGY_DESC, cachingMix[edge % cachingMix.length].name());
+        mv.visitEnd();
+    }
+
+    private static String internalName(int index) { return (NAME_PREFIX + index).replace('.', '/'); }
+
+    /**
+     * Defines the neuron interfaces and provides their class files as resources for generating their proxy classes.
+     */
+    private final class Loader extends ClassLoader {
+
+        final byte[][] classFiles = new byte[size][];
+
+        Loader() {
+            super(SyntheticGraph.class.getClassLoader());
+        }
+
+        @Override
+        protected Class<?> findClass(final String name) throws ClassNotFoundException {
+            final int index = index(name, "");
+            if (0 <= index) {
+                final byte[] b = classFiles[index] = bytes(index);
+                return defineClass(name, b, 0, b.length);
+            }
+            throw new ClassNotFoundException(name);
+        }
+
+        @Override
+        public InputStream getResourceAsStream(final String name) {
+            final int index = index(name.replace('/', '.'), ".class");
+            return 0 <= index && null != classFiles[index]
+                    ? new ByteArrayInputStream(classFiles[index])
+                    : super.getResourceAsStream(name);
+        }
+
+        int index(final String name, final String suffix) {
+            if (name.startsWith(NAME_PREFIX) && name.endsWith(suffix)) {
+                try {
+                    final int index = Integer.parseInt(
+                            name.substring(NAME_PREFIX.length(), name.length() - suffix.length()));
+                    if (0 <= index && index < size) {
+                        return index;
+                    }
+                } catch (NumberFormatException ignored) {
+                }
+            }
+            return -1;
+        }
+    }
+}
@@ -0,0 +1,84 @@
+/*
+ * Copyright © 2016 - 2021 Schlichtherle IT Services
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package global.namespace.neuron.di.benchmarks;
+
+import global.namespace.neuron.di.java.Incubator;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures how the time for generating proxy classes scales with the size of a {@link SyntheticGraph}.
+ * Each invocation gets a new graph, so that no proxy class has been generated for it yet.
+ * The warmup iterations only warm up Neuron DI itself - for measuring a cold JVM, run with {@code -wi 0 -f 10}.
+ * For the footprint of the generated proxy classes, see {@link SyntheticGraphFootprint}.
+ */
+@BenchmarkMode(Mode.SingleShotTime)
+@Fork(1)
+@Measurement(iterations = 10)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@State(Scope.Benchmark)
+@Warmup(iterations = 3)
+public class SyntheticGraphBenchmark {
+
+    @Param({"100", "1000", "10000"})
+    public int size;
+
+    @Param({"4"})
+    public int fanOut;
+
+    @Param({"8"})
+    public int depth;
+
+    @Param({"THREAD_SAFE", "DISABLED+NOT_THREAD_SAFE+THREAD_SAFE+THREAD_LOCAL"})
+    public String cachingMix;
+
+    private SyntheticGraph graph;
+
+    @Setup(Level.Invocation)
+    public void setup() {
+        graph = new SyntheticGraph(size, fanOut, depth, SyntheticGraph.cachingMix(cachingMix));
+    }
+
+    /**
+     * Measures the time to breed the root neuron of the graph, which generates only its own proxy class.
+     */
+    @Benchmark
+    public Object firstBreed() {
+        return Incubator.breed(graph.root());
+    }
+
+    /**
+     * Measures the total time to generate the proxy classes for all neuron interfaces of the graph in a single thread.
+     */
+    @Benchmark
+    public Object[] breedAll() {
+        final Class<?>[] classes = graph.classes();
+        final Object[] neurons = new Object[classes.length];
+        for (int i = 0; i < classes.length; i++) {
+            neurons[i] = Incubator.breed(classes[i]);
+        }
+        return neurons;
+    }
+
+    /**
+     * Measures the total time to generate the proxy classes for all neuron interfaces of the graph in parallel.
+     */
+    @Benchmark
+    public void prepare() {
+        Incubator.prepare(graph.classes());
+    }
+}
@@ -0,0 +1,101 @@
+/*
+ * Copyright © 2016 - 2021 Schlichtherle IT Services
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package global.namespace.neuron.di.benchmarks;
+
+import global.namespace.neuron.di.java.CachingStrategy;
+import global.namespace.neuron.di.java.Incubator;
+
+import java.lang.management.ManagementFactory;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Measures the time to first breed, the total time for generating the proxy classes, the metaspace growth and the
+ * heap retained per neuron interface for {@link SyntheticGraph}s with 100, 1,000 and 10,000 neuron interfaces.
+ * Unlike {@link SyntheticGraphBenchmark}, this is a single run, so the times are only a rough indication.
+ * Run with {@code sbt footprint [fanOut [depth [cachingMix]]]}, e.g. {@code sbt "footprint 4 8 THREAD_SAFE+SOFT"}.
+ */
+public final class SyntheticGraphFootprint {
+
+    private static final int[] SIZES = {100, 1_000, 10_000};
+
+    private SyntheticGraphFootprint() {
+    }
+
+    public static void main(final String[] args) throws InterruptedException {
+        final int fanOut = 0 < args.length ? Integer.parseInt(args[0]) : 4;
+        final int depth = 1 < args.length ? Integer.parseInt(args[1]) : 8;
+        final List<CachingStrategy> cachingMix = SyntheticGraph.cachingMix(2 < args.length ? args[2] : "THREAD_SAFE");
+        printf("fanOut=%d, depth=%d, cachingMix=%s%n", fanOut, depth, cachingMix);
+        printf("%8s %16s %16s %16s %16s %16s%n", "size", "firstBreed [ms]", "breedAll [ms]", "metaspace [KiB]",
+                "metaspace [B/n]", "heap [B/n]");
+        // Load and initialize Neuron DI first, so that the first row doesn't include this:
+        breedAll(new SyntheticGraph(SIZES[0], fanOut, depth, cachingMix));
+        for (final int size : SIZES) {
+            final SyntheticGraph graph = new SyntheticGraph(size, fanOut, depth, cachingMix);
+            gc();
+            final long metaspace = metaspaceUsed(), heap = heapUsed();
+
+            long start = System.nanoTime();
+            Incubator.breed(graph.root());
+            final long firstBreed = System.nanoTime() - start;
+
+            start = System.nanoTime();
+            final Object[] neurons = breedAll(graph);
+            final long breedAll = System.nanoTime() - start;
+
+            gc();
+            final long metaspaceGrowth = metaspaceUsed() - metaspace, heapGrowth = heapUsed() - heap;
+            printf("%8d %16.1f %16.1f %16d %16d %16d%n", size, firstBreed / 1e6, breedAll / 1e6,
+                    metaspaceGrowth / 1024, metaspaceGrowth / size, heapGrowth / size);
+            // Keep the graph and its neurons reachable until now:
+            if (null == neurons[size - 1] || graph.size() != size) {
+                throw new AssertionError();
+            }
+        }
+    }
+
+    private static Object[] breedAll(final SyntheticGraph graph) {
+        final Class<?>[] classes = graph.classes();
+        final Object[] neurons = new Object[classes.length];
+        for (int i = 0; i < classes.length; i++) {
+            neurons[i] = Incubator.breed(classes[i]);
+        }
+        return neurons;
+    }
+
+    private static long metaspaceUsed() {
+        return ManagementFactory
+                .getMemoryPoolMXBeans()
+                .stream()
+                .filter(pool -> "Metaspace".equals(pool.getName()))
+                .mapToLong(pool -> pool.getUsage().getUsed())
+                .sum();
+    }
+
+    private static long heapUsed() {
+        return ManagementFactory.getMemoryMXBean().getHeapMemoryUsage().getUsed();
+    }
+
+    private static void gc() throws InterruptedException {
+        for (int i = 0; i < 3; i++) {
+            System.gc();
+            Thread.sleep(100);
+        }
+    }
+
+    private static void printf(String format, Object... args) { System.out.printf(Locale.ENGLISH, format, args); }
+}
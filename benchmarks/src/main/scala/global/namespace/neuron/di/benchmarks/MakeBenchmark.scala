@@ -0,0 +1,74 @@
+/*
+ * Copyright © 2016 - 2021 Schlichtherle IT Services
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package global.namespace.neuron.di.benchmarks
+
+import java.util.concurrent.TimeUnit
+
+import global.namespace.neuron.di.benchmarks.MakeBenchmark._
+import global.namespace.neuron.di.scala._
+import org.openjdk.jmh.annotations._
+
+/** Measures the cost of making a neuron with the `make` macro in comparison to constructing a hand-written
+  * implementation.
+  */
+@BenchmarkMode(Array(Mode.AverageTime))
+@Fork(1)
+@Measurement(iterations = 5, time = 1)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@State(Scope.Benchmark)
+@Warmup(iterations = 5, time = 1)
+class MakeBenchmark {
+
+  @Benchmark
+  def construct: ScalaGreeting = new ScalaGreeting {
+
+    def formatter: ScalaFormatter = MakeBenchmark.formatter
+  }
+
+  @Benchmark
+  def makeGreeting: ScalaGreeting = make[ScalaGreeting]
+
+  @Benchmark
+  def makeFormatter: ScalaFormatter = make[ScalaFormatter]
+
+  @Benchmark
+  def message: String = make[ScalaGreeting].message("world")
+}
+
+object MakeBenchmark {
+
+  lazy val formatter: ScalaFormatter = make[ScalaFormatter]
+
+  val theFormat = "Hello %s!"
+
+  @Neuron
+  trait ScalaGreeting {
+
+    def formatter: ScalaFormatter
+
+    /** Returns a greeting message for the given entity. */
+    def message(entity: String): String = formatter format entity
+  }
+
+  @Neuron
+  trait ScalaFormatter {
+
+    def theFormat: String
+
+    /** Returns a text which has been formatted using the given arguments. */
+    def format(args: AnyRef*): String = String.format(theFormat, args: _*)
+  }
+}
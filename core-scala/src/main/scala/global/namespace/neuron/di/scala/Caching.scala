@@ -15,12 +15,18 @@
  */
 package global.namespace.neuron.di.scala
 
+import java.util.concurrent.{Executor, TimeUnit}
+
 import scala.annotation.{StaticAnnotation, compileTimeOnly}
 import scala.language.experimental.macros
 import scala.reflect.macros.whitebox
 
 @compileTimeOnly("Please add the Macro Paradise plugin to the Scala compiler to enable this macro annotation. See https://docs.scala-lang.org/overviews/macros/paradise.html .")
-class Caching(value: CachingStrategy = CachingStrategy.THREAD_SAFE) extends StaticAnnotation {
+class Caching(value: CachingStrategy = CachingStrategy.THREAD_SAFE,
+              timeToLive: Long = 60,
+              refreshAhead: Long = -1,
+              timeUnit: TimeUnit = TimeUnit.SECONDS,
+              executor: Class[_ <: Executor] = classOf[Executor]) extends StaticAnnotation {
 
   def macroTransform(annottees: Any*): Any = macro CachingMacro.transform
 }
@@ -57,6 +57,8 @@ private trait CachingAnnotation extends MacroAnnotation {
           val Apply(fun, _) = newCachingAnnotationTerm
           Apply(fun, args map {
             case NamedArg(lhs@q"value", rhs: Tree) => NamedArg(lhs, scala2javaCachingStrategy(rhs))
+            case arg: NamedArg => arg
+            case tree if args.size > 1 => NamedArg(q"value", scala2javaCachingStrategy(tree))
             case tree => scala2javaCachingStrategy(tree)
           })
         }
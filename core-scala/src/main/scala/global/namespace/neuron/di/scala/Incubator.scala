@@ -15,6 +15,11 @@
  */
 package global.namespace.neuron.di.scala
 
+import java.lang.reflect.Method
+import java.time.Duration
+import java.util.concurrent.Executor
+import java.{util => ju}
+
 import global.namespace.neuron.di.java.{Incubator => jIncubator}
 
 import scala.reflect._
@@ -25,6 +30,14 @@ object Incubator {
 
   def breed[A <: AnyRef : ClassTag](binding: SynapseBinding): A = jIncubator.breed(runtimeClassOf[A], binding)
 
+  def scope: jIncubator.Scope = jIncubator.scope()
+
+  def warmUp(neuron: AnyRef): ju.Map[Method, Duration] = jIncubator warmUp neuron
+
+  def warmUp(neuron: AnyRef, executor: Executor): ju.Map[Method, Duration] = jIncubator.warmUp(neuron, executor)
+
+  def unregisterMetrics(loader: ClassLoader): Unit = jIncubator unregisterMetrics loader
+
   case class wire[A <: AnyRef]()(implicit tag: ClassTag[A]) {
     self =>
 
@@ -53,6 +66,8 @@ object Incubator {
     def using(delegate: AnyRef): A = jwire using delegate
 
     def breed: A = jwire.breed
+
+    def compile: jIncubator.Blueprint[A] = jwire.compile
   }
 
 }
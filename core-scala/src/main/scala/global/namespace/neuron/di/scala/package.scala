@@ -36,6 +36,11 @@ package object scala {
     val NOT_THREAD_SAFE: CachingStrategy = jCachingStrategy.NOT_THREAD_SAFE
     val THREAD_SAFE: CachingStrategy = jCachingStrategy.THREAD_SAFE
     val THREAD_LOCAL: CachingStrategy = jCachingStrategy.THREAD_LOCAL
+    val EXPIRING: CachingStrategy = jCachingStrategy.EXPIRING
+    val SOFT: CachingStrategy = jCachingStrategy.SOFT
+    val WEAK: CachingStrategy = jCachingStrategy.WEAK
+    val SCOPED: CachingStrategy = jCachingStrategy.SCOPED
+    val ASYNC: CachingStrategy = jCachingStrategy.ASYNC
   }
 
   /** Breeds a neuron of the given type, wiring each synapse to a value with the same name and an assignment-compatible
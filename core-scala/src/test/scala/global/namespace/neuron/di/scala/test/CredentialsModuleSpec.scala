@@ -0,0 +1,41 @@
+/*
+ * Copyright © 2016 Schlichtherle IT Services
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package global.namespace.neuron.di.scala.test
+
+import java.util.concurrent.{Executor, TimeUnit}
+
+import global.namespace.neuron.di.java.{Caching, CachingStrategy}
+import global.namespace.neuron.di.scala.Incubator
+import global.namespace.neuron.di.scala.sample.CredentialsModule
+import org.scalatest.matchers.should.Matchers._
+import org.scalatest.wordspec.AnyWordSpec
+
+class CredentialsModuleSpec extends AnyWordSpec {
+
+  "Make a credentials module" in {
+    val module = Incubator.breed[CredentialsModule]
+    module.token should be theSameInstanceAs module.token
+  }
+
+  "Apply the caching attributes" in {
+    val caching = classOf[CredentialsModule].getMethod("token").getAnnotation(classOf[Caching])
+    caching.value shouldBe CachingStrategy.EXPIRING
+    caching.timeToLive shouldBe 1
+    caching.refreshAhead shouldBe -1
+    caching.timeUnit shouldBe TimeUnit.HOURS
+    caching.executor shouldBe classOf[Executor]
+  }
+}
@@ -18,16 +18,23 @@ package global.namespace.neuron.di.internal;
 import global.namespace.neuron.di.internal.proxy.Proxies;
 import global.namespace.neuron.di.java.BreedingException;
 import org.objectweb.asm.ClassReader;
+import org.objectweb.asm.ClassVisitor;
 import org.objectweb.asm.ClassWriter;
 import org.objectweb.asm.Opcodes;
 
 import java.io.IOException;
 import java.io.InputStream;
-import java.lang.reflect.Method;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.function.BiConsumer;
+import java.util.function.Consumer;
 import java.util.stream.Stream;
 
 import static global.namespace.neuron.di.internal.Reflection.defineSubclass;
+import static global.namespace.neuron.di.internal.Reflection.definesHiddenSubclass;
 import static java.util.Optional.ofNullable;
 import static org.objectweb.asm.ClassReader.SKIP_DEBUG;
 import static org.objectweb.asm.ClassWriter.COMPUTE_MAXS;
@@ -36,32 +43,151 @@ import static org.objectweb.asm.Type.getInternalName;
 final class ASM implements Opcodes {
 
     private static final String PROXIES_PACKAGE_PREFIX = Proxies.PACKAGE_NAME + ".$";
+    private static final String PROXY_SUFFIX = "$$proxy";
+    static final String PRECOMPILED_PROXY_SUFFIX = PROXY_SUFFIX + "$";
+
+    /**
+     * The version of the layout of the generated proxy classes.
+     * This needs to get incremented whenever the generated bytecode changes so that stale precompiled proxy classes
+     * get ignored.
+     */
+    private static final int PROXY_LAYOUT_VERSION = 11;
 
     /**
      * Returns a class which proxies the given class or interface.
+     * If a matching precompiled proxy class is available, then it gets loaded.
+     * Otherwise, a new proxy class gets generated and defined.
      */
-    static <N> Class<? extends N> proxyClass(final Class<? extends N> clazz, final List<Method> bindableMethods) {
-        final Class<?> superclass;
-        final Stream<Class<?>> streamOfInterfaces;
-        if (clazz.isInterface()) {
-            superclass = Object.class;
-            streamOfInterfaces = Stream.concat(Stream.of(clazz), streamOfInterfaces(bindableMethods));
-        } else {
-            superclass = clazz;
-            streamOfInterfaces = streamOfInterfaces(bindableMethods);
+    static <N> Class<? extends N> proxyClass(final Class<? extends N> clazz, final List<ProxyMethod> methods) {
+        final Object event = Events.beginProxyClass();
+        final String superName = superName(clazz);
+        final ClassLoader cl = clazz.getClassLoader();
+        if (null != cl) {
+            final String precompiledProxyName = precompiledProxyName(clazz.getName(), superName, methods);
+            try {
+                final Class<?> precompiledProxyClass = Class.forName(precompiledProxyName, false, cl);
+                if (clazz.isAssignableFrom(precompiledProxyClass)) {
+                    Events.commitProxyClass(event, clazz, precompiledProxyClass, 0, true);
+                    return precompiledProxyClass.asSubclass(clazz);
+                }
+            } catch (ClassNotFoundException ignored) {
+            }
         }
-        final Class<?>[] arrayOfInterfaces = streamOfInterfaces.distinct().toArray(Class<?>[]::new);
-        final String proxyName = null != clazz.getClassLoader()
-                ? clazz.getName().concat("$$proxy")
+        final String proxyName = null != cl
+                ? clazz.getName().concat(PROXY_SUFFIX)
                 : PROXIES_PACKAGE_PREFIX.concat(clazz.getName().replace('.', '$'));
+        final boolean hidden = definesHiddenSubclass(clazz);
+        final byte[] b = proxyClassBytes(clazz, proxyName, superName, methods, hidden);
+        final Class<? extends N> proxyClass = defineSubclass(clazz, proxyName, b);
+        Events.commitProxyClass(event, clazz, proxyClass, b.length, false);
+        return proxyClass;
+    }
+
+    /**
+     * Generates a precompiled proxy class for the given class or interface and passes its binary name and bytecode to
+     * the given consumer.
+     * The precompiled proxy class is picked up by {@link #proxyClass(Class, List)} if it's available to the class
+     * loader of the given class or interface.
+     */
+    static void precompileProxyClass(final Class<?> clazz,
+                                     final List<ProxyMethod> methods,
+                                     final BiConsumer<String, byte[]> consumer) {
+        final String superName = superName(clazz);
+        final String proxyName = precompiledProxyName(clazz.getName(), superName, methods);
+        consumer.accept(proxyName, proxyClassBytes(clazz, proxyName, superName, methods, false));
+    }
+
+    private static String superName(Class<?> clazz) {
+        return getInternalName(clazz.isInterface() ? Object.class : clazz);
+    }
+
+    private static byte[] proxyClassBytes(final Class<?> clazz,
+                                          final String proxyName,
+                                          final String superName,
+                                          final List<ProxyMethod> bindableMethods,
+                                          final boolean hidden) {
         final ClassReader cr = classReader(clazz);
-        final ClassWriter cw = new ClassWriter(cr, COMPUTE_MAXS);
-        cr.accept(new ProxyClassVisitor(cw, internalName(proxyName), superclass, arrayOfInterfaces, bindableMethods), SKIP_DEBUG);
-        return defineSubclass(clazz, proxyName, cw.toByteArray());
+        return proxyClassBytes(pcv -> cr.accept(pcv, SKIP_DEBUG),
+                internalName(proxyName),
+                superName,
+                interfaces(getInternalName(clazz), clazz.isInterface(), bindableMethods),
+                bindableMethods,
+                hidden);
     }
 
-    private static Stream<Class<?>> streamOfInterfaces(List<Method> bindableMethods) {
-        return bindableMethods.stream().<Class<?>>map(Method::getDeclaringClass).filter(Class::isInterface);
+    /**
+     * Returns the binary name of a precompiled proxy class for the named class or interface.
+     * The name includes a fingerprint of the proxy class layout, so that any changes to the type hierarchy of the
+     * proxied class or interface or to the layout of the generated proxy classes render a precompiled proxy class
+     * obsolete.
+     */
+    static String precompiledProxyName(final String className,
+                                       final String superName,
+                                       final List<ProxyMethod> bindableMethods) {
+        final StringBuilder fingerprint = new StringBuilder()
+                .append(PROXY_LAYOUT_VERSION)
+                .append('\n')
+                .append(superName);
+        if (SynapseMetrics.ENABLED) {
+            // No caching strategy is inlined then:
+            fingerprint.append("\ninstrumented");
+        }
+        bindableMethods
+                .stream()
+                .map(ProxyMethod::fingerprint)
+                .sorted()
+                .forEach(method -> fingerprint.append('\n').append(method));
+        final byte[] digest;
+        try {
+            digest = MessageDigest
+                    .getInstance("SHA-1")
+                    .digest(fingerprint.toString().getBytes(StandardCharsets.UTF_8));
+        } catch (NoSuchAlgorithmException e) {
+            throw new AssertionError(e);
+        }
+        final StringBuilder name = new StringBuilder(className).append(PRECOMPILED_PROXY_SUFFIX);
+        for (int i = 0; i < 8; i++) {
+            name.append(Character.forDigit(digest[i] >> 4 & 0xf, 16)).append(Character.forDigit(digest[i] & 0xf, 16));
+        }
+        return name.toString();
+    }
+
+    /**
+     * Returns the internal names of the interfaces to be implemented by a proxy class.
+     */
+    static String[] interfaces(final String name, final boolean isInterface, final List<ProxyMethod> bindableMethods) {
+        final Stream<String> ownerNames = bindableMethods
+                .stream()
+                .filter(ProxyMethod::ownerIsInterface)
+                .map(ProxyMethod::ownerName);
+        return (isInterface ? Stream.concat(Stream.of(name), ownerNames) : ownerNames)
+                .distinct()
+                .toArray(String[]::new);
+    }
+
+    /**
+     * Returns the bytecode of a proxy class.
+     *
+     * @param source a consumer which visits the header of the proxied class or interface, e.g. by reading its class
+     *               file.
+     *               The proxy class visitor will copy the class annotations and ignore anything else but the class
+     *               file version and access flags.
+     * @param bindableMethods the bindable methods in any order: They get sorted according to
+     *                        {@link ProxyMethod#ORDER}.
+     * @param hidden whether the proxy class gets defined as a hidden class.
+     *               If {@code true}, then no shim methods get generated.
+     */
+    static byte[] proxyClassBytes(final Consumer<ClassVisitor> source,
+                                  final String proxyName,
+                                  final String superName,
+                                  final String[] interfaces,
+                                  final List<ProxyMethod> bindableMethods,
+                                  final boolean hidden) {
+        final List<ProxyMethod> sortedMethods = new ArrayList<>(bindableMethods);
+        sortedMethods.sort(ProxyMethod.ORDER);
+        final ClassWriter cw = new ClassWriter(COMPUTE_MAXS);
+        source.accept(new ProxyClassVisitor(cw, proxyName, superName, interfaces, sortedMethods, hidden));
+        return cw.toByteArray();
     }
 
     private static ClassReader classReader(final Class<?> clazz) {
@@ -80,7 +206,7 @@ final class ASM implements Opcodes {
                         .orElseThrow(() -> new BreedingException("Class not found: " + clazz.getName())));
     }
 
-    private static String internalName(String className) {
+    static String internalName(String className) {
         return className.replace('.', '/');
     }
 }
@@ -0,0 +1,74 @@
+/*
+ * Copyright © 2016 - 2021 Schlichtherle IT Services
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package global.namespace.neuron.di.internal;
+
+import global.namespace.neuron.di.java.BreedingException;
+import global.namespace.neuron.di.java.CachingStrategy;
+import global.namespace.neuron.di.java.DependencyProvider;
+
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Implements the {@link CachingStrategy#ASYNC} caching strategy.
+ * The completion stage is cached as soon as the dependency provider returns it, so that concurrent calls share the
+ * in-flight computation.
+ * If the completion stage completes exceptionally, it gets evicted so that the next call resolves a new one.
+ * A cache miss calls the dependency provider while holding a lock rather than a monitor, so that a virtual thread
+ * which runs a slow synchronous part of the dependency provider doesn't pin its carrier thread.
+ */
+final class AsyncDependencyProvider<D> implements DependencyProvider<D> {
+
+    private final DependencyProvider<D> provider;
+    private final AtomicReference<D> stage = new AtomicReference<>();
+    private final ReentrantLock lock = new ReentrantLock();
+
+    AsyncDependencyProvider(final MethodInfo info, final DependencyProvider<D> provider) {
+        if (!CompletionStage.class.isAssignableFrom(info.returnType())) {
+            throw new BreedingException("The return type must be a subtype of CompletionStage: " + info.method());
+        }
+        this.provider = provider;
+    }
+
+    @Override
+    public D get() throws Throwable {
+        D s = stage.get();
+        if (null == s) {
+            lock.lock();
+            try {
+                if (null == (s = stage.get())) {
+                    if (null == (s = provider.get())) {
+                        return null;
+                    }
+                    stage.set(s);
+                    evictOnFailure(s);
+                }
+            } finally {
+                lock.unlock();
+            }
+        }
+        return s;
+    }
+
+    private void evictOnFailure(final D current) {
+        ((CompletionStage<?>) current).whenComplete((value, e) -> {
+            if (null != e) {
+                stage.compareAndSet(current, null);
+            }
+        });
+    }
+}
@@ -0,0 +1,66 @@
+/*
+ * Copyright © 2016 - 2021 Schlichtherle IT Services
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package global.namespace.neuron.di.internal;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.EventType;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * Records breeding a neuron by a proxy factory, see {@link Events}.
+ */
+@Name("global.namespace.neuron.di.Breed")
+@Label("Breed")
+@Description("Binds the methods of a neuron class and creates an instance of its proxy class.")
+@Category("Neuron DI")
+final class BreedEvent extends Event {
+
+    @Label("Neuron Class")
+    Class<?> neuronClass;
+
+    @Label("Methods")
+    @Description("The number of bindable methods.")
+    int methods;
+
+    @Label("Bindings")
+    @Description("The number of methods which got bound to a dependency provider or a constant.")
+    int bindings;
+
+    private static final EventType type = EventType.getEventType(BreedEvent.class);
+
+    static Object start() {
+        if (!type.isEnabled()) {
+            return null;
+        }
+        final BreedEvent event = new BreedEvent();
+        event.begin();
+        return event;
+    }
+
+    static void finish(final Object e, final Class<?> neuronClass, final int methods, final int bindings) {
+        final BreedEvent event = (BreedEvent) e;
+        event.end();
+        if (event.shouldCommit()) {
+            event.neuronClass = neuronClass;
+            event.methods = methods;
+            event.bindings = bindings;
+            event.commit();
+        }
+    }
+}
@@ -0,0 +1,43 @@
+/*
+ * Copyright © 2016 - 2021 Schlichtherle IT Services
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package global.namespace.neuron.di.internal;
+
+import global.namespace.neuron.di.java.DependencyProvider;
+
+/**
+ * Provides a constant value.
+ * When breeding a neuron, the proxy factory recognizes this class and stores the value in a field of the proxy
+ * instance, so that the bound method returns it without calling any dependency provider.
+ *
+ * @param <D> the type of the dependency.
+ */
+public final class ConstantProvider<D> implements DependencyProvider<D> {
+
+    private final D value;
+
+    private ConstantProvider(final D value) {
+        this.value = value;
+    }
+
+    public static <D> ConstantProvider<D> of(D value) {
+        return new ConstantProvider<>(value);
+    }
+
+    @Override
+    public D get() {
+        return value;
+    }
+}
@@ -3,4 +3,13 @@ package global.namespace.neuron.di.internal;
 interface DefineSubclass {
 
     <C> Class<? extends C> apply(Class<C> clazz, String name, byte[] b);
+
+    /**
+     * Returns {@code true} if {@link #apply} defines a hidden class for the given class or interface.
+     * In this case, the proxy class doesn't need any shim methods for calling its super methods because the proxy
+     * factory can look up method handles for them instead.
+     */
+    default boolean definesHiddenClass(Class<?> clazz) {
+        return false;
+    }
 }
@@ -0,0 +1,114 @@
+package global.namespace.neuron.di.internal;
+
+import global.namespace.neuron.di.internal.proxy.Proxies;
+import global.namespace.neuron.di.java.BreedingException;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.reflect.Array;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+
+import static java.lang.invoke.MethodHandles.Lookup.MODULE;
+import static java.lang.invoke.MethodHandles.Lookup.PRIVATE;
+import static java.lang.invoke.MethodHandles.lookup;
+import static java.lang.invoke.MethodHandles.privateLookupIn;
+import static java.lang.invoke.MethodType.methodType;
+
+/**
+ * Defines proxy classes as hidden nestmate classes of the proxied class or interface, so that they do not pin the
+ * class loader and can get unloaded as soon as they are no longer used.
+ * The hidden class API is accessed via reflection because this code is compiled for Java 8.
+ * If the proxied class or interface is in a module which cannot be fully accessed, e.g. the unnamed module of some
+ * other class loader, then the proxy class gets defined like in {@link DefineSubclassForJava9}.
+ */
+final class DefineSubclassForJava15 implements DefineSubclass {
+
+    private static final MethodHandles.Lookup lookup = lookup();
+
+    private static final Method defineHiddenClass, isHidden;
+    private static final Object nestmate;
+
+    static {
+        Method dhc = null, ih = null;
+        Object nm = null;
+        try {
+            final Class<?> classOptionClass = Class.forName("java.lang.invoke.MethodHandles$Lookup$ClassOption");
+            nm = Array.newInstance(classOptionClass, 1);
+            Array.set(nm, 0, classOptionClass.getField("NESTMATE").get(null));
+            dhc = MethodHandles.Lookup.class
+                    .getMethod("defineHiddenClass", byte[].class, boolean.class, nm.getClass());
+            ih = Class.class.getMethod("isHidden");
+        } catch (ReflectiveOperationException ignored) {
+        }
+        defineHiddenClass = dhc;
+        isHidden = ih;
+        nestmate = nm;
+    }
+
+    static boolean isAvailable() {
+        return null != defineHiddenClass;
+    }
+
+    static boolean isHidden(final Class<?> clazz) {
+        try {
+            return (Boolean) isHidden.invoke(clazz);
+        } catch (IllegalAccessException | InvocationTargetException e) {
+            throw new AssertionError(e);
+        }
+    }
+
+    /**
+     * Returns a method handle which calls the given method of the super class or interface of the given hidden proxy
+     * class, just like an {@code invokespecial} instruction in the proxy class would do.
+     */
+    @SuppressWarnings("Since15")
+    static MethodHandle findSuper(final Class<?> proxyClass, final Method method) {
+        try {
+            return privateLookupIn(proxyClass, lookup).findSpecial(method.getDeclaringClass(),
+                    method.getName(),
+                    methodType(method.getReturnType(), method.getParameterTypes()),
+                    proxyClass);
+        } catch (ReflectiveOperationException e) {
+            throw new BreedingException(e);
+        }
+    }
+
+    @Override
+    public boolean definesHiddenClass(final Class<?> clazz) {
+        try {
+            return hasFullPrivilegeAccess(lookupIn(clazz));
+        } catch (IllegalAccessException e) {
+            throw new BreedingException(e);
+        }
+    }
+
+    @Override
+    @SuppressWarnings({"unchecked", "Since15"})
+    public <C> Class<? extends C> apply(final Class<C> clazz, final String name, final byte[] b) {
+        try {
+            final MethodHandles.Lookup l = lookupIn(clazz);
+            if (hasFullPrivilegeAccess(l)) {
+                return (Class<? extends C>) ((MethodHandles.Lookup) defineHiddenClass.invoke(l, b, true, nestmate))
+                        .lookupClass();
+            } else {
+                return (Class<? extends C>) l.defineClass(b);
+            }
+        } catch (InvocationTargetException e) {
+            throw new BreedingException(e.getCause());
+        } catch (IllegalAccessException e) {
+            throw new BreedingException(e);
+        }
+    }
+
+    @SuppressWarnings("Since15")
+    private static MethodHandles.Lookup lookupIn(final Class<?> clazz) throws IllegalAccessException {
+        return privateLookupIn(null != clazz.getClassLoader() ? clazz : Proxies.class, lookup);
+    }
+
+    // Defining a hidden class requires full privilege access:
+    private static boolean hasFullPrivilegeAccess(final MethodHandles.Lookup l) {
+        final int modes = PRIVATE | MODULE;
+        return (l.lookupModes() & modes) == modes;
+    }
+}
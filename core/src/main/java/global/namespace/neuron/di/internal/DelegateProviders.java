@@ -0,0 +1,264 @@
+/*
+ * Copyright © 2016 - 2021 Schlichtherle IT Services
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package global.namespace.neuron.di.internal;
+
+import global.namespace.neuron.di.java.BreedingException;
+import global.namespace.neuron.di.java.DependencyProvider;
+import global.namespace.neuron.di.java.DoubleDependencyProvider;
+import global.namespace.neuron.di.java.IntDependencyProvider;
+import global.namespace.neuron.di.java.LongDependencyProvider;
+import org.objectweb.asm.ClassWriter;
+import org.objectweb.asm.MethodVisitor;
+import org.objectweb.asm.Type;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Constructor;
+import java.lang.reflect.Field;
+import java.lang.reflect.Member;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+
+import static global.namespace.neuron.di.internal.Reflection.defineSubclass;
+import static global.namespace.neuron.di.internal.Reflection.isHidden;
+import static java.lang.invoke.MethodHandles.publicLookup;
+import static java.lang.invoke.MethodType.methodType;
+import static java.util.Optional.empty;
+import static java.util.Optional.of;
+import static org.objectweb.asm.ClassWriter.COMPUTE_MAXS;
+import static org.objectweb.asm.Opcodes.*;
+import static org.objectweb.asm.Type.*;
+
+/**
+ * Generates dependency providers which access a member of a delegate object directly in bytecode, so that the JIT can
+ * inline the access like in a hand-written adapter.
+ * For each member, a provider class gets generated in the package of the class which declares the member.
+ * The provider class holds a typed reference to the delegate object and implements the primitive dependency provider
+ * interface which matches the type of the member, if any.
+ * Private members, members of hidden classes or of classes loaded by the bootstrap class loader and members with a
+ * type which doesn't exactly match the return type of the synapse method are not supported.
+ * In this case, the caller should fall back to a method handle.
+ */
+public final class DelegateProviders {
+
+    private static final int ACC_FINAL_SUPER_SYNTHETIC = ACC_FINAL | ACC_SUPER | ACC_SYNTHETIC;
+    private static final int ACC_PRIVATE_FINAL_SYNTHETIC = ACC_PRIVATE | ACC_FINAL | ACC_SYNTHETIC;
+
+    private static final String CONSTRUCTOR_NAME = "<init>";
+    private static final String ACCEPTS_NOTHING_AND_RETURNS_VOID_DESC = "()V";
+    private static final String ACCEPTS_OBJECT_AND_RETURNS_VOID_DESC = "(Ljava/lang/Object;)V";
+    private static final String DELEGATE_FIELD_NAME = "delegate";
+    private static final String PROVIDER_SUFFIX = "$$delegate$";
+
+    private static final MethodType dependencyProviderObjectMethodType =
+            methodType(DependencyProvider.class, Object.class);
+
+    /**
+     * Holds the constructors of the generated provider classes for the members of each class.
+     * An empty optional means that the member is not supported.
+     */
+    private static final ClassValue<Map<Member, Optional<MethodHandle>>> constructors =
+            new ClassValue<Map<Member, Optional<MethodHandle>>>() {
+
+                @Override
+                protected Map<Member, Optional<MethodHandle>> computeValue(Class<?> clazz) {
+                    return new ConcurrentHashMap<>();
+                }
+            };
+
+    /**
+     * Returns a function which creates a dependency provider for the given synapse method which accesses the given
+     * member of the delegate object passed to the function.
+     * The member must be a {@link Method} without parameters or a {@link Field}.
+     * Returns an empty optional if the member is not supported.
+     */
+    public static Optional<Function<Object, DependencyProvider<?>>> factory(final Method synapse, final Member member) {
+        if (!matches(synapse.getReturnType(), memberType(member))) {
+            return empty();
+        }
+        final Class<?> declaringClass = member.getDeclaringClass();
+        Optional<MethodHandle> constructor = constructors.get(declaringClass).get(member);
+        if (null == constructor) {
+            constructor = constructors
+                    .get(declaringClass)
+                    .computeIfAbsent(member, DelegateProviders::constructor);
+        }
+        return constructor.map(handle -> delegate -> {
+            try {
+                return (DependencyProvider<?>) handle.invokeExact(delegate);
+            } catch (Throwable e) {
+                throw new BreedingException(e);
+            }
+        });
+    }
+
+    private static Class<?> memberType(final Member member) {
+        return member instanceof Method ? ((Method) member).getReturnType() : ((Field) member).getType();
+    }
+
+    // Anything else would change the semantics of converting the dependency in comparison to a method handle:
+    private static boolean matches(final Class<?> returnType, final Class<?> memberType) {
+        return returnType.isPrimitive() || memberType.isPrimitive()
+                ? returnType == memberType && returnType != Void.TYPE
+                : true;
+    }
+
+    private static Optional<MethodHandle> constructor(final Member member) {
+        final Class<?> declaringClass = member.getDeclaringClass();
+        if (Modifier.isPrivate(member.getModifiers())
+                || null == declaringClass.getClassLoader()
+                || isHidden(declaringClass)) {
+            return empty();
+        }
+        final String providerName = declaringClass.getName() + PROVIDER_SUFFIX
+                + (member instanceof Method ? "method$" : "field$") + member.getName();
+        final Class<?> providerClass;
+        try {
+            providerClass = defineSubclass(declaringClass, providerName, providerClassBytes(providerName, member));
+        } catch (BreedingException | LinkageError e) {
+            // The package is not accessible or a concurrent thread has already defined the class, so give up:
+            return empty();
+        }
+        try {
+            final Constructor<?> c = providerClass.getDeclaredConstructor(Object.class);
+            c.setAccessible(true);
+            return of(publicLookup().unreflectConstructor(c).asType(dependencyProviderObjectMethodType));
+        } catch (ReflectiveOperationException e) {
+            throw new AssertionError(e);
+        }
+    }
+
+    private static byte[] providerClassBytes(final String providerName, final Member member) {
+        final String internalProviderName = ASM.internalName(providerName);
+        final Class<?> declaringClass = member.getDeclaringClass();
+        final String declaringName = getInternalName(declaringClass);
+        final String declaringDesc = getDescriptor(declaringClass);
+        final boolean isStatic = Modifier.isStatic(member.getModifiers());
+        final Type memberType = getType(memberType(member));
+        final ProviderKind kind = ProviderKind.of(memberType);
+
+        final ClassWriter cw = new ClassWriter(COMPUTE_MAXS);
+        cw.visit(V1_8, ACC_FINAL_SUPER_SYNTHETIC, internalProviderName, null, "java/lang/Object",
+                new String[]{kind.interfaceName});
+        if (!isStatic) {
+            cw.visitField(ACC_PRIVATE_FINAL_SYNTHETIC, DELEGATE_FIELD_NAME, declaringDesc, null, null).visitEnd();
+        }
+        {
+            final MethodVisitor mv = cw.visitMethod(ACC_PRIVATE | ACC_SYNTHETIC, CONSTRUCTOR_NAME,
+                    ACCEPTS_OBJECT_AND_RETURNS_VOID_DESC, null, null);
+            mv.visitCode();
+            mv.visitVarInsn(ALOAD, 0);
+            mv.visitMethodInsn(INVOKESPECIAL, "java/lang/Object", CONSTRUCTOR_NAME,
+                    ACCEPTS_NOTHING_AND_RETURNS_VOID_DESC, false);
+            if (!isStatic) {
+                mv.visitVarInsn(ALOAD, 0);
+                mv.visitVarInsn(ALOAD, 1);
+                mv.visitTypeInsn(CHECKCAST, declaringName);
+                mv.visitFieldInsn(PUTFIELD, internalProviderName, DELEGATE_FIELD_NAME, declaringDesc);
+            }
+            mv.visitInsn(RETURN);
+            mv.visitMaxs(-1, -1);
+            mv.visitEnd();
+        }
+        {
+            final MethodVisitor mv = cw.visitMethod(ACC_PUBLIC | ACC_FINAL, kind.getterName,
+                    getMethodDescriptor(kind.getterReturnType), null, null);
+            mv.visitCode();
+            if (!isStatic) {
+                mv.visitVarInsn(ALOAD, 0);
+                mv.visitFieldInsn(GETFIELD, internalProviderName, DELEGATE_FIELD_NAME, declaringDesc);
+            }
+            if (member instanceof Method) {
+                final boolean isInterface = declaringClass.isInterface();
+                mv.visitMethodInsn(isStatic ? INVOKESTATIC : isInterface ? INVOKEINTERFACE : INVOKEVIRTUAL,
+                        declaringName, member.getName(), getMethodDescriptor((Method) member), isInterface);
+            } else {
+                mv.visitFieldInsn(isStatic ? GETSTATIC : GETFIELD, declaringName, member.getName(),
+                        memberType.getDescriptor());
+            }
+            kind.convert(mv, memberType);
+            mv.visitInsn(kind.getterReturnType.getOpcode(IRETURN));
+            mv.visitMaxs(-1, -1);
+            mv.visitEnd();
+        }
+        cw.visitEnd();
+        return cw.toByteArray();
+    }
+
+    private enum ProviderKind {
+
+        OBJECT(DependencyProvider.class, "get", getType(Object.class)) {
+
+            @Override
+            void convert(final MethodVisitor mv, final Type memberType) {
+                if (memberType.getSort() == Type.BOOLEAN) {
+                    mv.visitMethodInsn(INVOKESTATIC, "java/lang/Boolean", "valueOf", "(Z)Ljava/lang/Boolean;",
+                            false);
+                }
+            }
+        },
+
+        INT(IntDependencyProvider.class, "getAsInt", INT_TYPE),
+
+        LONG(LongDependencyProvider.class, "getAsLong", LONG_TYPE),
+
+        DOUBLE(DoubleDependencyProvider.class, "getAsDouble", DOUBLE_TYPE) {
+
+            @Override
+            void convert(final MethodVisitor mv, final Type memberType) {
+                if (memberType.getSort() == Type.FLOAT) {
+                    mv.visitInsn(F2D);
+                }
+            }
+        };
+
+        final String interfaceName, getterName;
+        final Type getterReturnType;
+
+        ProviderKind(final Class<?> interfaceClass, final String getterName, final Type getterReturnType) {
+            this.interfaceName = getInternalName(interfaceClass);
+            this.getterName = getterName;
+            this.getterReturnType = getterReturnType;
+        }
+
+        static ProviderKind of(final Type memberType) {
+            switch (memberType.getSort()) {
+                case Type.INT:
+                case Type.SHORT:
+                case Type.CHAR:
+                case Type.BYTE:
+                    return INT;
+                case Type.LONG:
+                    return LONG;
+                case Type.FLOAT:
+                case Type.DOUBLE:
+                    return DOUBLE;
+                default:
+                    return OBJECT;
+            }
+        }
+
+        void convert(MethodVisitor mv, Type memberType) {
+        }
+    }
+
+    private DelegateProviders() {
+    }
+}
@@ -0,0 +1,160 @@
+/*
+ * Copyright © 2016 - 2021 Schlichtherle IT Services
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package global.namespace.neuron.di.internal;
+
+import global.namespace.neuron.di.java.BreedingException;
+import global.namespace.neuron.di.java.DependencyProvider;
+import global.namespace.neuron.di.java.DoubleDependencyProvider;
+import global.namespace.neuron.di.java.IntDependencyProvider;
+import global.namespace.neuron.di.java.LongDependencyProvider;
+
+import java.lang.reflect.Method;
+
+import static java.lang.invoke.MethodType.methodType;
+
+/**
+ * Adapts dependency providers to the return type of the methods they are bound to.
+ * For methods with a primitive return type other than {@code boolean}, the proxy class calls a primitive dependency
+ * provider, see {@link ProxyClassVisitor}.
+ * Conversely, a lambda expression of some primitive type gets bound to a primitive dependency provider even if the
+ * return type of the method is a wrapper class or a narrower primitive type, so its value gets converted as if the
+ * lambda expression was typed accordingly.
+ */
+final class DependencyProviders {
+
+    static DependencyProvider<?> adapt(final Method method, final DependencyProvider<?> provider) {
+        final Class<?> returnType = method.getReturnType();
+        if (isInt(returnType)) {
+            return intProvider(method, provider);
+        } else if (returnType == Long.TYPE) {
+            return longProvider(method, provider);
+        } else if (returnType == Double.TYPE || returnType == Float.TYPE) {
+            return doubleProvider(returnType, provider);
+        } else {
+            return boxedProvider(returnType, provider);
+        }
+    }
+
+    /**
+     * Like {@link #adapt}, but the returned dependency provider always provides boxed values of the return type of the
+     * given method, e.g. {@link Short} for {@code short}, so that it can get decorated like any other dependency
+     * provider.
+     */
+    static DependencyProvider<?> box(final Method method, final DependencyProvider<?> provider) {
+        final Class<?> returnType = method.getReturnType();
+        if (!returnType.isPrimitive()) {
+            return adapt(method, provider);
+        }
+        // Apply the same checks as adapt:
+        if (isInt(returnType) || returnType == Long.TYPE && !(provider instanceof LongDependencyProvider)) {
+            requireNoLossOfPrecision(method, provider);
+        }
+        return boxedProvider(methodType(returnType).wrap().returnType(), provider);
+    }
+
+    private static boolean isInt(final Class<?> returnType) {
+        return returnType == Integer.TYPE || returnType == Short.TYPE || returnType == Character.TYPE
+                || returnType == Byte.TYPE;
+    }
+
+    private static IntDependencyProvider intProvider(final Method method, final DependencyProvider<?> provider) {
+        if (provider instanceof IntDependencyProvider) {
+            return (IntDependencyProvider) provider;
+        }
+        requireNoLossOfPrecision(method, provider);
+        final Class<?> returnType = method.getReturnType();
+        if (returnType == Integer.TYPE) {
+            return () -> (Integer) provider.get();
+        } else if (returnType == Short.TYPE) {
+            return () -> (Short) provider.get();
+        } else if (returnType == Character.TYPE) {
+            return () -> (Character) provider.get();
+        } else {
+            assert returnType == Byte.TYPE;
+            return () -> (Byte) provider.get();
+        }
+    }
+
+    private static LongDependencyProvider longProvider(final Method method, final DependencyProvider<?> provider) {
+        if (provider instanceof LongDependencyProvider) {
+            return (LongDependencyProvider) provider;
+        } else if (provider instanceof IntDependencyProvider) {
+            return ((IntDependencyProvider) provider)::getAsInt;
+        }
+        requireNoLossOfPrecision(method, provider);
+        return () -> (Long) provider.get();
+    }
+
+    private static DoubleDependencyProvider doubleProvider(final Class<?> returnType,
+                                                           final DependencyProvider<?> provider) {
+        if (provider instanceof DoubleDependencyProvider) {
+            return (DoubleDependencyProvider) provider;
+        } else if (provider instanceof IntDependencyProvider) {
+            return ((IntDependencyProvider) provider)::getAsInt;
+        } else if (provider instanceof LongDependencyProvider) {
+            return ((LongDependencyProvider) provider)::getAsLong;
+        } else if (returnType == Double.TYPE) {
+            return () -> (Double) provider.get();
+        } else {
+            assert returnType == Float.TYPE;
+            return () -> (Float) provider.get();
+        }
+    }
+
+    private static DependencyProvider<?> boxedProvider(final Class<?> returnType,
+                                                       final DependencyProvider<?> provider) {
+        if (provider instanceof IntDependencyProvider) {
+            final IntDependencyProvider p = (IntDependencyProvider) provider;
+            if (returnType == Long.class) {
+                return () -> (long) p.getAsInt();
+            } else if (returnType == Double.class) {
+                return () -> (double) p.getAsInt();
+            } else if (returnType == Float.class) {
+                return () -> (float) p.getAsInt();
+            } else if (returnType == Short.class) {
+                return () -> (short) p.getAsInt();
+            } else if (returnType == Character.class) {
+                return () -> (char) p.getAsInt();
+            } else if (returnType == Byte.class) {
+                return () -> (byte) p.getAsInt();
+            }
+        } else if (provider instanceof LongDependencyProvider) {
+            final LongDependencyProvider p = (LongDependencyProvider) provider;
+            if (returnType == Double.class) {
+                return () -> (double) p.getAsLong();
+            } else if (returnType == Float.class) {
+                return () -> (float) p.getAsLong();
+            }
+        } else if (provider instanceof DoubleDependencyProvider) {
+            final DoubleDependencyProvider p = (DoubleDependencyProvider) provider;
+            if (returnType == Float.class) {
+                return () -> (float) p.getAsDouble();
+            }
+        }
+        return provider;
+    }
+
+    private static void requireNoLossOfPrecision(final Method method, final DependencyProvider<?> provider) {
+        if (provider instanceof LongDependencyProvider) {
+            throw new BreedingException("Cannot bind a long dependency provider to this method: " + method);
+        } else if (provider instanceof DoubleDependencyProvider) {
+            throw new BreedingException("Cannot bind a double dependency provider to this method: " + method);
+        }
+    }
+
+    private DependencyProviders() {
+    }
+}
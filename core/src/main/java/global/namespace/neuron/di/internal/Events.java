@@ -0,0 +1,146 @@
+/*
+ * Copyright © 2016 - 2021 Schlichtherle IT Services
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package global.namespace.neuron.di.internal;
+
+import global.namespace.neuron.di.java.DependencyProvider;
+
+import java.lang.reflect.Method;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Emits Java Flight Recorder events for generating proxy classes, breeding neurons, resolving dependencies slowly and
+ * waiting for the lock of the thread-safe caching strategy.
+ * The events are only available if the JVM provides the {@code jdk.jfr} API, i.e. Java 8u262 or later, and supports
+ * the flight recorder.
+ * Otherwise, this class does nothing.
+ * The event classes are only ever loaded if the API is available, so that this class doesn't depend on it.
+ * <p>
+ * The events are enabled by default when recording.
+ * Each time before recording an event, its {@code jdk.jfr.EventType} is checked, so that no event object gets
+ * allocated unless the event is enabled.
+ * <p>
+ * The event for resolving the return value of a method is recorded upon each call to its dependency provider which
+ * completes normally, i.e. upon each call if caching is disabled or else upon each cache miss:
+ * If caching is disabled or the caching strategy is inlined, then the generated proxy class calls
+ * {@link #beginResolution()} and {@link #commitResolution(Object, String)}, see {@link ProxyClassVisitor}.
+ * Otherwise, the cache decorator calls a dependency provider which is {@linkplain #resolution wrapped} accordingly.
+ */
+public final class Events {
+
+    private static final boolean available;
+
+    static {
+        boolean a;
+        try {
+            a = (Boolean) Class
+                    .forName("jdk.jfr.FlightRecorder", false, Events.class.getClassLoader())
+                    .getMethod("isAvailable")
+                    .invoke(null);
+        } catch (ReflectiveOperationException | LinkageError e) {
+            a = false;
+        }
+        available = a;
+    }
+
+    private Events() {
+    }
+
+    /**
+     * Returns a new proxy class event which has begun or {@code null} if the event is not enabled.
+     */
+    static Object beginProxyClass() {
+        return available ? ProxyClassEvent.start() : null;
+    }
+
+    static void commitProxyClass(final Object event,
+                                 final Class<?> clazz,
+                                 final Class<?> proxyClass,
+                                 final int bytes,
+                                 final boolean precompiled) {
+        if (null != event) {
+            ProxyClassEvent.finish(event, clazz, proxyClass, bytes, precompiled);
+        }
+    }
+
+    /**
+     * Returns a new breed event which has begun or {@code null} if the event is not enabled.
+     */
+    static Object beginBreed() {
+        return available ? BreedEvent.start() : null;
+    }
+
+    static void commitBreed(final Object event, final Class<?> clazz, final int methods, final int bindings) {
+        if (null != event) {
+            BreedEvent.finish(event, clazz, methods, bindings);
+        }
+    }
+
+    /**
+     * Returns a new resolution event which has begun or {@code null} if the event is not enabled.
+     * This is called by the generated proxy classes before calling a dependency provider, see
+     * {@link ProxyClassVisitor}.
+     */
+    public static Object beginResolution() {
+        return available ? ResolutionEvent.start() : null;
+    }
+
+    /**
+     * Commits the given resolution event for the given method, unless it's {@code null}.
+     * This is called by the generated proxy classes after calling a dependency provider, see
+     * {@link ProxyClassVisitor}.
+     */
+    public static void commitResolution(final Object event, final String method) {
+        if (null != event) {
+            ResolutionEvent.finish(event, method);
+        }
+    }
+
+    /**
+     * Wraps the given dependency provider so that each call records a resolution event for the given method if it's
+     * enabled.
+     * This is used by the cache decorators, so that the dependency provider only gets called upon a cache miss.
+     * If the {@code jdk.jfr} API is not available, then the given dependency provider is returned as is.
+     */
+    static <D> DependencyProvider<D> resolution(final Method method, final DependencyProvider<D> provider) {
+        if (!available) {
+            return provider;
+        }
+        final String name = name(method);
+        return () -> {
+            final Object event = beginResolution();
+            final D value = provider.get();
+            commitResolution(event, name);
+            return value;
+        };
+    }
+
+    /**
+     * Acquires the given lock of the thread-safe caching strategy for the given method and records the time waiting
+     * for it.
+     * This is called by the generated proxy classes if the lock is contended, see {@link ProxyClassVisitor}.
+     */
+    public static void lock(final ReentrantLock lock, final String method) {
+        if (available) {
+            LockContentionEvent.lock(lock, method);
+        } else {
+            lock.lock();
+        }
+    }
+
+    static String name(final Method method) {
+        return method.getDeclaringClass().getName() + '.' + method.getName();
+    }
+}
@@ -0,0 +1,151 @@
+/*
+ * Copyright © 2016 - 2021 Schlichtherle IT Services
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package global.namespace.neuron.di.internal;
+
+import global.namespace.neuron.di.java.BreedingException;
+import global.namespace.neuron.di.java.Caching;
+import global.namespace.neuron.di.java.CachingStrategy;
+import global.namespace.neuron.di.java.DependencyProvider;
+
+import java.util.concurrent.Executor;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Implements the {@link CachingStrategy#EXPIRING} caching strategy.
+ * The cached value is held in an immutable entry which is referenced by a volatile field, so that a cache hit costs
+ * one volatile read and no lock.
+ * An atomic flag ensures that at most one refresh per dependency provider is in progress at any time.
+ * Once the cached value has outlived its time to live, e.g. because refreshing it has failed, it's never returned
+ * again: Instead, the next call resolves a new value synchronously, so that any exception gets thrown to the caller.
+ * Synchronous resolutions are serialized by a lock rather than a monitor, so that a virtual thread which resolves a
+ * value doesn't pin its carrier thread.
+ */
+final class ExpiringDependencyProvider<D> implements DependencyProvider<D> {
+
+    private static final Caching defaults = Defaults.class.getAnnotation(Caching.class);
+
+    private static final ClassValue<Executor> executors = new ClassValue<Executor>() {
+
+        @Override
+        protected Executor computeValue(final Class<?> clazz) {
+            if (Executor.class == clazz) {
+                return ForkJoinPool.commonPool();
+            }
+            try {
+                return (Executor) clazz.getConstructor().newInstance();
+            } catch (ReflectiveOperationException e) {
+                throw new BreedingException("Cannot create executor: " + clazz, e);
+            }
+        }
+    };
+
+    private final DependencyProvider<D> provider, refresher;
+    private final long timeToLiveNanos, refreshAfterNanos;
+    private final Executor executor;
+    private final AtomicBoolean refreshing = new AtomicBoolean();
+    private final ReentrantLock lock = new ReentrantLock();
+
+    private volatile Entry<D> entry;
+
+    ExpiringDependencyProvider(final MethodInfo info, final DependencyProvider<D> provider) {
+        final Caching caching = info.findCachingAnnotation().orElse(defaults);
+        final TimeUnit unit = caching.timeUnit();
+        final long timeToLive = unit.toNanos(caching.timeToLive());
+        final long refreshAhead = -1 == caching.refreshAhead()
+                ? timeToLive / 4
+                : unit.toNanos(caching.refreshAhead());
+        if (timeToLive < 0 || refreshAhead < 0) {
+            throw new BreedingException("The time to live and the refresh-ahead window must not be negative: "
+                    + info.method());
+        }
+        this.provider = provider;
+        this.refresher = SynapseMetrics.refresher(provider);
+        this.timeToLiveNanos = timeToLive;
+        this.refreshAfterNanos = Math.max(0, timeToLive - refreshAhead);
+        this.executor = executors.get(caching.executor());
+    }
+
+    @Override
+    public D get() throws Throwable {
+        Entry<D> e = entry;
+        final long now;
+        if (null == e || e.isExpired(now = System.nanoTime())) {
+            e = resolve();
+        } else if (now - e.refreshAt >= 0 && refreshing.compareAndSet(false, true)) {
+            refresh();
+        }
+        return e.value;
+    }
+
+    private Entry<D> resolve() throws Throwable {
+        lock.lock();
+        try {
+            Entry<D> e = entry;
+            if (null == e || e.isExpired(System.nanoTime())) {
+                entry = e = newEntry(provider);
+            }
+            return e;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void refresh() {
+        try {
+            executor.execute(() -> {
+                try {
+                    entry = newEntry(refresher);
+                } catch (Throwable ignored) {
+                    // Retain the current value until it expires and try again upon the next call.
+                } finally {
+                    refreshing.set(false);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            refreshing.set(false);
+        }
+    }
+
+    private Entry<D> newEntry(final DependencyProvider<D> provider) throws Throwable {
+        final D value = provider.get();
+        final long now = System.nanoTime();
+        return new Entry<>(value, now + refreshAfterNanos, now + timeToLiveNanos);
+    }
+
+    private static final class Entry<D> {
+
+        final D value;
+        final long refreshAt, expiresAt;
+
+        Entry(final D value, final long refreshAt, final long expiresAt) {
+            this.value = value;
+            this.refreshAt = refreshAt;
+            this.expiresAt = expiresAt;
+        }
+
+        boolean isExpired(final long now) {
+            return now - expiresAt >= 0;
+        }
+    }
+
+    @Caching(CachingStrategy.EXPIRING)
+    private @interface Defaults {
+    }
+}
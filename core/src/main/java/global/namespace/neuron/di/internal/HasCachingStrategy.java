@@ -16,15 +16,10 @@
 package global.namespace.neuron.di.internal;
 
 import global.namespace.neuron.di.java.CachingStrategy;
-import global.namespace.neuron.di.java.DependencyProvider;
 
 @FunctionalInterface
 interface HasCachingStrategy {
 
-    default <D> DependencyProvider<D> decorate(DependencyProvider<D> provider) {
-        return realCachingStrategy().decorate(provider);
-    }
-
     default RealCachingStrategy realCachingStrategy() {
         return RealCachingStrategy.valueOf(cachingStrategy());
     }
@@ -0,0 +1,57 @@
+/*
+ * Copyright © 2016 - 2021 Schlichtherle IT Services
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package global.namespace.neuron.di.internal;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.EventType;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.Threshold;
+
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Records waiting for the contended lock of the thread-safe caching strategy, see {@link Events}.
+ */
+@Name("global.namespace.neuron.di.LockContention")
+@Label("Lock Contention")
+@Description("Waits for another thread to resolve the return value of a method with the THREAD_SAFE caching strategy.")
+@Category("Neuron DI")
+@Threshold("10 ms")
+final class LockContentionEvent extends Event {
+
+    @Label("Method")
+    String method;
+
+    private static final EventType type = EventType.getEventType(LockContentionEvent.class);
+
+    static void lock(final ReentrantLock lock, final String method) {
+        if (!type.isEnabled()) {
+            lock.lock();
+            return;
+        }
+        final LockContentionEvent event = new LockContentionEvent();
+        event.begin();
+        lock.lock();
+        event.end();
+        if (event.shouldCommit()) {
+            event.method = method;
+            event.commit();
+        }
+    }
+}
@@ -15,8 +15,23 @@
  */
 package global.namespace.neuron.di.internal;
 
+import global.namespace.neuron.di.java.DependencyProvider;
+
 interface MethodElement<C> extends MethodInfo, Element<C> {
 
+    /**
+     * Decorates the given dependency provider with a cache according to the caching strategy of this method.
+     * If the strategy is {@linkplain RealCachingStrategy#isDecorating() decorating}, then cache misses get recorded as
+     * JFR events, see {@link Events}.
+     * Otherwise, the generated proxy class records them, see {@link ProxyClassVisitor}.
+     */
+    default <D> DependencyProvider<D> decorate(DependencyProvider<D> provider) {
+        final RealCachingStrategy strategy = realCachingStrategy();
+        return strategy.isDecorating()
+                ? strategy.decorate(this, Events.resolution(method(), provider))
+                : strategy.decorate(this, provider);
+    }
+
     @Override
     default void accept(Visitor<C> visitor) {
         visitor.visitMethod(this);
@@ -19,10 +19,12 @@ import global.namespace.neuron.di.java.Neuron;
 
 import javax.annotation.processing.RoundEnvironment;
 import javax.annotation.processing.SupportedAnnotationTypes;
+import javax.annotation.processing.SupportedOptions;
 import javax.lang.model.element.Element;
 import javax.lang.model.element.ExecutableElement;
 import javax.lang.model.element.Modifier;
 import javax.lang.model.element.TypeElement;
+import java.io.IOException;
 import java.util.List;
 import java.util.Set;
 import java.util.stream.Collectors;
@@ -35,28 +37,53 @@ import static javax.lang.model.element.Modifier.*;
 // The error checks in this class must match the error checks in
 // `global.namespace.neuron.di.scala.NeuronAnnotation`!
 @SupportedAnnotationTypes("global.namespace.neuron.di.java.Neuron")
+@SupportedOptions(NeuronProcessor.PRECOMPILE_OPTION)
 public final class NeuronProcessor extends CommonProcessor {
 
+    /**
+     * The name of the processor option which enables generating the proxy classes for neuron types at compile time,
+     * e.g. {@code -Aglobal.namespace.neuron.di.precompile=true}.
+     * This saves the runtime cost of generating them when breeding the first neuron of each type.
+     */
+    static final String PRECOMPILE_OPTION = "global.namespace.neuron.di.precompile";
+
     @Override
     public boolean process(final Set<? extends TypeElement> annotations, final RoundEnvironment roundEnv) {
         annotations.forEach(annotation ->
-                roundEnv.getElementsAnnotatedWith(annotation).forEach(element -> validate((TypeElement) element)));
+                roundEnv.getElementsAnnotatedWith(annotation).forEach(element -> {
+                    final TypeElement type = (TypeElement) element;
+                    if (!isPrecompiledProxy(type)) {
+                        validate(type);
+                    }
+                }));
         return true;
     }
 
+    /**
+     * Returns {@code true} if the given type is a proxy class which has been generated by this processor in a previous
+     * round: Because these classes copy the annotations of their neuron type, they would get processed again.
+     */
+    private static boolean isPrecompiledProxy(TypeElement type) {
+        return type.getQualifiedName().toString().contains(ASM.PRECOMPILED_PROXY_SUFFIX);
+    }
+
     private void validate(final TypeElement type) {
+        boolean valid = true;
         if (!hasStaticContext(type)) {
             error("A neuron class must have a static context.", type);
+            valid = false;
         }
         final Set<Modifier> mods = type.getModifiers();
         if (mods.contains(FINAL)) {
             error("A neuron class cannot be final.", type);
+            valid = false;
         }
         if (!mods.contains(ABSTRACT)) {
             warn("A neuron class should be abstract.", type);
         }
         if (!hasEitherNoConstructorOrANonPrivateConstructorWithoutParameters(type)) {
             error("A neuron type must have either no constructor or a non-private constructor without parameters.", type);
+            valid = false;
         }
         if (type.getKind() == INTERFACE && type.getAnnotation(Neuron.class).cachingStrategy() != DISABLED) {
             warn("A neuron interface should not have a caching strategy.", type);
@@ -64,6 +91,23 @@ public final class NeuronProcessor extends CommonProcessor {
         if (isSerializable(type)) {
             warn("A neuron type should not be serializable.", type);
         }
+        if (valid && isPrecompileEnabled()) {
+            precompile(type);
+        }
+    }
+
+    private boolean isPrecompileEnabled() {
+        return Boolean.parseBoolean(processingEnv.getOptions().get(PRECOMPILE_OPTION));
+    }
+
+    private void precompile(final TypeElement type) {
+        try {
+            if (!new ProxyPrecompiler(processingEnv).precompile(type)) {
+                warn("Cannot precompile the proxy class for this neuron type - it will get generated at runtime.", type);
+            }
+        } catch (IOException e) {
+            warn("Failed to write the proxy class for this neuron type - it will get generated at runtime: " + e, type);
+        }
     }
 
     private static boolean hasStaticContext(TypeElement type) {
@@ -0,0 +1,75 @@
+/*
+ * Copyright © 2016 - 2021 Schlichtherle IT Services
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package global.namespace.neuron.di.internal;
+
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.EventType;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * Records the generation or loading of a proxy class, see {@link Events}.
+ */
+@Name("global.namespace.neuron.di.ProxyClass")
+@Label("Proxy Class")
+@Description("Generates and defines a proxy class for a neuron class or loads a precompiled proxy class.")
+@Category("Neuron DI")
+final class ProxyClassEvent extends Event {
+
+    @Label("Neuron Class")
+    Class<?> neuronClass;
+
+    @Label("Proxy Class")
+    Class<?> proxyClass;
+
+    @Label("Bytes")
+    @Description("The size of the generated class file or zero if the proxy class is precompiled.")
+    @DataAmount
+    int bytes;
+
+    @Label("Precompiled")
+    boolean precompiled;
+
+    private static final EventType type = EventType.getEventType(ProxyClassEvent.class);
+
+    static Object start() {
+        if (!type.isEnabled()) {
+            return null;
+        }
+        final ProxyClassEvent event = new ProxyClassEvent();
+        event.begin();
+        return event;
+    }
+
+    static void finish(final Object e,
+                       final Class<?> neuronClass,
+                       final Class<?> proxyClass,
+                       final int bytes,
+                       final boolean precompiled) {
+        final ProxyClassEvent event = (ProxyClassEvent) e;
+        event.end();
+        if (event.shouldCommit()) {
+            event.neuronClass = neuronClass;
+            event.proxyClass = proxyClass;
+            event.bytes = bytes;
+            event.precompiled = precompiled;
+            event.commit();
+        }
+    }
+}
@@ -17,12 +17,15 @@ package global.namespace.neuron.di.internal;
 
 import global.namespace.neuron.di.java.BreedingException;
 import global.namespace.neuron.di.java.DependencyProvider;
+import global.namespace.neuron.di.java.DoubleDependencyProvider;
+import global.namespace.neuron.di.java.IntDependencyProvider;
+import global.namespace.neuron.di.java.LongDependencyProvider;
 import org.objectweb.asm.*;
 
-import java.lang.reflect.Method;
 import java.util.List;
+import java.util.concurrent.atomic.AtomicReferenceFieldUpdater;
+import java.util.concurrent.locks.ReentrantLock;
 
-import static global.namespace.neuron.di.internal.Reflection.boxed;
 import static java.lang.Math.max;
 import static org.objectweb.asm.Opcodes.*;
 import static org.objectweb.asm.Type.*;
@@ -38,35 +41,54 @@ final class ProxyClassVisitor extends ClassVisitor {
     private static final String ACCEPTS_NOTHING_AND_RETURNS_VOID_DESC = "()V";
     private static final String OBJECT_DESC = "Ljava/lang/Object;";
     private static final String ACCEPTS_NOTHING_AND_RETURNS_OBJECT_DESC = "()" + OBJECT_DESC;
-
-    private static final Type acceptsNothingAndReturnsObjectType = getType(ACCEPTS_NOTHING_AND_RETURNS_OBJECT_DESC);
-    private static final String dependencyProviderName = getInternalName(DependencyProvider.class);
-    private static final String dependencyProviderDesc = getDescriptor(DependencyProvider.class);
-    private static final Handle metaFactoryHandle = new Handle(H_INVOKESTATIC,
-            "java/lang/invoke/LambdaMetafactory",
-            "metafactory",
-            "(Ljava/lang/invoke/MethodHandles$Lookup;Ljava/lang/String;Ljava/lang/invoke/MethodType;Ljava/lang/invoke/MethodType;Ljava/lang/invoke/MethodHandle;Ljava/lang/invoke/MethodType;)Ljava/lang/invoke/CallSite;",
-            false);
-
-    private final String proxyName, proxyDesc, superName;
+    private static final String OBJECT_ARRAY_DESC = "[" + OBJECT_DESC;
+    private static final String ACCEPTS_OBJECT_ARRAY_AND_RETURNS_VOID_DESC = "(" + OBJECT_ARRAY_DESC + ")V";
+
+    private static final String STATIC_INITIALIZER_NAME = "<clinit>";
+    private static final String REENTRANT_LOCK_NAME = getInternalName(ReentrantLock.class);
+    private static final String REENTRANT_LOCK_DESC = "L" + REENTRANT_LOCK_NAME + ";";
+    private static final String ACCEPTS_NOTHING_AND_RETURNS_REENTRANT_LOCK_DESC = "()" + REENTRANT_LOCK_DESC;
+    private static final String UPDATER_NAME = getInternalName(AtomicReferenceFieldUpdater.class);
+    private static final String UPDATER_DESC = "L" + UPDATER_NAME + ";";
+    private static final String NEW_UPDATER_DESC = "(Ljava/lang/Class;Ljava/lang/Class;Ljava/lang/String;)" + UPDATER_DESC;
+    private static final String COMPARE_AND_SET_DESC = "(" + OBJECT_DESC + OBJECT_DESC + OBJECT_DESC + ")Z";
+
+    private static final String EVENTS_NAME = getInternalName(Events.class);
+    private static final String EVENTS_LOCK_DESC = "(" + REENTRANT_LOCK_DESC + "Ljava/lang/String;)V";
+    private static final String EVENTS_COMMIT_RESOLUTION_DESC = "(Ljava/lang/Object;Ljava/lang/String;)V";
+
+    private static final String constantProviderName = getInternalName(ConstantProvider.class);
+
+    private static final ProviderType objectProviderType =
+            new ProviderType(DependencyProvider.class, "get", ACCEPTS_NOTHING_AND_RETURNS_OBJECT_DESC, NOP);
+    private static final ProviderType intProviderType =
+            new ProviderType(IntDependencyProvider.class, "getAsInt", "()I", NOP);
+    private static final ProviderType shortProviderType = intProviderType.narrowedBy(I2S);
+    private static final ProviderType charProviderType = intProviderType.narrowedBy(I2C);
+    private static final ProviderType byteProviderType = intProviderType.narrowedBy(I2B);
+    private static final ProviderType longProviderType =
+            new ProviderType(LongDependencyProvider.class, "getAsLong", "()J", NOP);
+    private static final ProviderType doubleProviderType =
+            new ProviderType(DoubleDependencyProvider.class, "getAsDouble", "()D", NOP);
+    private static final ProviderType floatProviderType = doubleProviderType.narrowedBy(D2F);
+    private final String proxyName, superName;
     private final String[] interfaces;
-    private final List<Method> bindableMethods;
+    private final List<ProxyMethod> bindableMethods;
+    private final boolean hidden;
+    private MethodVisitor clinit;
 
     ProxyClassVisitor(final ClassVisitor cv,
                       final String proxyName,
-                      final Class<?> superclass,
-                      final Class<?>[] interfaces,
-                      final List<Method> bindableMethods) {
+                      final String superName,
+                      final String[] interfaces,
+                      final List<ProxyMethod> bindableMethods,
+                      final boolean hidden) {
         super(ASM9, cv);
         this.proxyName = proxyName;
-        this.proxyDesc = "L" + proxyName + ";";
-        this.superName = getInternalName(superclass);
-        int i = interfaces.length;
-        this.interfaces = new String[i];
-        while (0 <= --i) {
-            this.interfaces[i] = getInternalName(interfaces[i]);
-        }
+        this.superName = superName;
+        this.interfaces = interfaces;
         this.bindableMethods = bindableMethods;
+        this.hidden = hidden;
     }
 
     @Override
@@ -125,15 +147,43 @@ final class ProxyClassVisitor extends ClassVisitor {
 
     @Override
     public void visitEnd() {
-        insertConstructor();
-        insertMethods();
+        final MethodVisitor ctor = beginConstructor();
+        insertMethods(ctor);
+        endConstructor(ctor);
+        endStaticInitializer();
         cv.visitEnd();
     }
 
-    private void insertConstructor() {
+    // The static initializer gets generated on demand, see `staticInitializer`.
+    private void endStaticInitializer() {
+        if (null != clinit) {
+            clinit.visitInsn(RETURN);
+            clinit.visitMaxs(-1, -1);
+            clinit.visitEnd();
+        }
+    }
+
+    private MethodVisitor staticInitializer() {
+        if (null == clinit) {
+            clinit = cv.visitMethod(ACC_STATIC | ACC_SYNTHETIC,
+                    STATIC_INITIALIZER_NAME,
+                    ACCEPTS_NOTHING_AND_RETURNS_VOID_DESC,
+                    null,
+                    null);
+            clinit.visitCode();
+        }
+        return clinit;
+    }
+
+    // The constructor expects an array with two elements per bindable method, in the order of the list of bindable
+    // methods:
+    // The first element is the dependency provider or null.
+    // The second element is a constant provider or null.
+    // Each bindable method appends the code for initializing its fields, see `generateConstructorCode`.
+    private MethodVisitor beginConstructor() {
         final MethodVisitor mv = cv.visitMethod(ACC_PRIVATE_SYNTHETIC,
                 CONSTRUCTOR_NAME,
-                ACCEPTS_NOTHING_AND_RETURNS_VOID_DESC,
+                ACCEPTS_OBJECT_ARRAY_AND_RETURNS_VOID_DESC,
                 null,
                 null);
         mv.visitCode();
@@ -143,88 +193,387 @@ final class ProxyClassVisitor extends ClassVisitor {
                 CONSTRUCTOR_NAME,
                 ACCEPTS_NOTHING_AND_RETURNS_VOID_DESC,
                 false);
-        for (final Method method : bindableMethods) {
-            if (0 != (method.getModifiers() & ACC_ABSTRACT)) {
-                continue;
-            }
-            final String methodName = method.getName();
-            final String shimName = methodName + "$shim";
-            final String methodDesc = getMethodDescriptor(method);
-            final Type methodType = getType(methodDesc);
-            mv.visitVarInsn(ALOAD, 0);
-            mv.visitVarInsn(ALOAD, 0);
-            mv.visitInvokeDynamicInsn("get",
-                    "(" + proxyDesc + ")" + dependencyProviderDesc,
-                    metaFactoryHandle,
-                    acceptsNothingAndReturnsObjectType,
-                    // TODO: Inline the shim method by replacing the following LOC with:
-                    // new Handle(H_INVOKESPECIAL, getInternalName(method.getDeclaringClass()), methodName, methodDesc, method.getDeclaringClass().isInterface()),
-                    // This is how it was in Neuron DI 6.6.0 and it used to work up to Java 14.
-                    // However, it stopped working in Java 15(.0.1) and 16(-ea), so now we need to generate and call a
-                    // shim method instead:
-                    new Handle(H_INVOKESPECIAL, proxyName, shimName, methodDesc, false),
-                    methodType);
-            mv.visitFieldInsn(PUTFIELD, proxyName, proxyFieldName(method), dependencyProviderDesc);
-        }
+        return mv;
+    }
+
+    private static void endConstructor(final MethodVisitor mv) {
         mv.visitInsn(RETURN);
         mv.visitMaxs(-1, -1);
         mv.visitEnd();
     }
 
-    private void insertMethods() {
-        for (final Method method : bindableMethods) {
+    private void insertMethods(final MethodVisitor ctor) {
+        int index = 0;
+        for (final ProxyMethod method : bindableMethods) {
+            final int providerIndex = index++ * 2;
             new Object() {
 
-                final int access = method.getModifiers() & ~ACC_ABSTRACT_NATIVE | ACC_SYNTHETIC;
-                final String methodName = method.getName();
+                final int access = method.access() & ~ACC_ABSTRACT_NATIVE | ACC_SYNTHETIC;
+                final String methodName = method.name();
                 final String shimName = methodName + "$shim";
-                final String fieldName = proxyFieldName(method);
-                final String methodDesc = getMethodDescriptor(method);
+                final String cacheName = methodName + "$cache";
+                final String lockName = methodName + "$lock";
+                final String dependencyName = methodName + "$dependency";
+                final String fieldName = method.proxyFieldName();
+                final String valueFieldName = fieldName + "$value";
+                final String initFieldName = fieldName + "$init";
+                final String lockFieldName = fieldName + "$lock";
+                final String updaterFieldName = lockFieldName + "$updater";
+                final String methodDesc = method.descriptor();
+
+                final String ownerName = method.ownerName();
+                final boolean ownerIsIface = method.ownerIsInterface();
+
+                final Type returnType = method.returnType();
+                final String returnTypeName = returnType.getClassName();
+                final String returnTypeDesc = returnType.getDescriptor();
+
+                final Type boxedReturnType = boxed(returnType);
+                final String boxedReturnTypeName = boxedReturnType.getInternalName();
 
-                final Class<?> ownerClass = method.getDeclaringClass();
-                final String ownerName = getInternalName(ownerClass);
-                final boolean ownerIsIface = ownerClass.isInterface();
-
-                final Class<?> returnType = method.getReturnType();
-                final String returnTypeName = getInternalName(returnType);
-                final String returnTypeDesc = getDescriptor(returnType);
+                final int returnOpCode = returnOpCode(method);
 
-                final Class<?> boxedReturnType = boxed(returnType);
-                final String boxedReturnTypeName = getInternalName(boxedReturnType);
-                final String boxedReturnTypeDesc = getDescriptor(boxedReturnType);
+                final ProviderType providerType = providerType(returnType);
 
-                final int returnOpCode = returnOpCode(method);
+                final RealCachingStrategy cachingStrategy = method.cachingStrategy();
+                final boolean threadSafe = cachingStrategy == RealCachingStrategy.THREAD_SAFE;
 
                 {
-                    generateProxyField();
+                    generateProxyFields();
+                    generateConstructorCode();
                     generateProxyMethod();
-                    generateShimMethod();
+                    if (cachingStrategy.isInlined()) {
+                        generateCacheMethod();
+                        if (threadSafe) {
+                            generateLockMethod();
+                        }
+                    }
+                    if (!method.isAbstract()) {
+                        generateDependencyMethod();
+                        if (!hidden) {
+                            generateShimMethod();
+                        }
+                    }
+                }
+
+                // The value and init fields get set by the cache method or by the proxy factory if the method is bound
+                // to a constant.
+                void generateProxyFields() {
+                    cv.visitField(ACC_PRIVATE_SYNTHETIC, fieldName, providerType.desc, null, null)
+                            .visitEnd();
+                    cv.visitField(ACC_PRIVATE_SYNTHETIC, valueFieldName, returnTypeDesc, null, null)
+                            .visitEnd();
+                    // For the thread-safe strategy, the value gets safely published by the volatile write to the
+                    // init field, so the value field doesn't need to be volatile:
+                    final int initFieldAccess = ACC_PRIVATE_SYNTHETIC | (threadSafe ? ACC_VOLATILE : 0);
+                    cv.visitField(initFieldAccess, initFieldName, "Z", null, null)
+                            .visitEnd();
+                    if (threadSafe && cachingStrategy.isInlined()) {
+                        generateLockFields();
+                    }
                 }
 
-                void generateProxyField() {
-                    cv.visitField(ACC_PRIVATE_SYNTHETIC, fieldName, dependencyProviderDesc, null, null)
+                // Each thread-safe method has its own lock, so that a cache miss never blocks another method.
+                // The lock gets created lazily, so that it doesn't cost any memory unless the method has a cache
+                // miss:
+                // private volatile ReentrantLock $method$lock;
+                // private static final AtomicReferenceFieldUpdater $method$lock$updater =
+                //         AtomicReferenceFieldUpdater.newUpdater(Proxy.class, ReentrantLock.class, "$method$lock");
+                void generateLockFields() {
+                    cv.visitField(ACC_PRIVATE_SYNTHETIC | ACC_VOLATILE, lockFieldName, REENTRANT_LOCK_DESC, null, null)
+                            .visitEnd();
+                    cv.visitField(ACC_PRIVATE_SYNTHETIC | ACC_STATIC | ACC_FINAL, updaterFieldName, UPDATER_DESC, null, null)
                             .visitEnd();
+                    final MethodVisitor mv = staticInitializer();
+                    mv.visitLdcInsn(getObjectType(proxyName));
+                    mv.visitLdcInsn(getObjectType(REENTRANT_LOCK_NAME));
+                    mv.visitLdcInsn(lockFieldName);
+                    mv.visitMethodInsn(INVOKESTATIC, UPDATER_NAME, "newUpdater", NEW_UPDATER_DESC, false);
+                    mv.visitFieldInsn(PUTSTATIC, proxyName, updaterFieldName, UPDATER_DESC);
                 }
 
+                // private ReentrantLock method$lock() {
+                //     $method$lock$updater.compareAndSet(this, null, new ReentrantLock());
+                //     return this.$method$lock;
+                // }
+                // If multiple threads race to create the lock, then only one of them wins and all of them return its
+                // lock.
+                // This avoids holding the monitor of the proxy, which may be used by the application.
+                void generateLockMethod() {
+                    final MethodVisitor mv = cv.visitMethod(ACC_PRIVATE_SYNTHETIC,
+                            lockName,
+                            ACCEPTS_NOTHING_AND_RETURNS_REENTRANT_LOCK_DESC,
+                            null,
+                            null);
+                    mv.visitCode();
+                    mv.visitFieldInsn(GETSTATIC, proxyName, updaterFieldName, UPDATER_DESC);
+                    mv.visitVarInsn(ALOAD, 0);
+                    mv.visitInsn(ACONST_NULL);
+                    mv.visitTypeInsn(NEW, REENTRANT_LOCK_NAME);
+                    mv.visitInsn(DUP);
+                    mv.visitMethodInsn(INVOKESPECIAL,
+                            REENTRANT_LOCK_NAME,
+                            CONSTRUCTOR_NAME,
+                            ACCEPTS_NOTHING_AND_RETURNS_VOID_DESC,
+                            false);
+                    mv.visitMethodInsn(INVOKEVIRTUAL, UPDATER_NAME, "compareAndSet", COMPARE_AND_SET_DESC, false);
+                    mv.visitInsn(POP);
+                    mv.visitVarInsn(ALOAD, 0);
+                    mv.visitFieldInsn(GETFIELD, proxyName, lockFieldName, REENTRANT_LOCK_DESC);
+                    mv.visitInsn(ARETURN);
+                    mv.visitMaxs(-1, -1);
+                    mv.visitEnd();
+                }
+
+                // this.$method = (DependencyProvider) args[providerIndex];
+                // if (args[providerIndex + 1] != null) {
+                //     this.$method$value = (ReturnType) ((ConstantProvider) args[providerIndex + 1]).get();
+                //     this.$method$init = true;
+                // }
+                void generateConstructorCode() {
+                    final Label skip = new Label();
+                    ctor.visitVarInsn(ALOAD, 0);
+                    ctor.visitVarInsn(ALOAD, 1);
+                    push(ctor, providerIndex);
+                    ctor.visitInsn(AALOAD);
+                    ctor.visitTypeInsn(CHECKCAST, providerType.name);
+                    ctor.visitFieldInsn(PUTFIELD, proxyName, fieldName, providerType.desc);
+                    ctor.visitVarInsn(ALOAD, 1);
+                    push(ctor, providerIndex + 1);
+                    ctor.visitInsn(AALOAD);
+                    ctor.visitJumpInsn(IFNULL, skip);
+                    ctor.visitVarInsn(ALOAD, 0);
+                    ctor.visitVarInsn(ALOAD, 1);
+                    push(ctor, providerIndex + 1);
+                    ctor.visitInsn(AALOAD);
+                    ctor.visitTypeInsn(CHECKCAST, constantProviderName);
+                    ctor.visitMethodInsn(INVOKEVIRTUAL, constantProviderName, "get", ACCEPTS_NOTHING_AND_RETURNS_OBJECT_DESC, false);
+                    checkcastAndUnbox(ctor);
+                    ctor.visitFieldInsn(PUTFIELD, proxyName, valueFieldName, returnTypeDesc);
+                    ctor.visitVarInsn(ALOAD, 0);
+                    ctor.visitInsn(ICONST_1);
+                    ctor.visitFieldInsn(PUTFIELD, proxyName, initFieldName, "Z");
+                    ctor.visitLabel(skip);
+                    // The implicit frame at the start of the constructor has an uninitialized `this`, so it cannot be
+                    // referred to:
+                    ctor.visitFrame(F_FULL, 2, new Object[]{proxyName, OBJECT_ARRAY_DESC}, 0, new Object[0]);
+                }
+
+                // if (this.$method$init) return this.$method$value;
+                // return this.method$cache(); // if the caching strategy is inlined
+                // return this.$method.get(); // if the caching strategy is decorating
+                // Object event = Events.beginResolution(); // otherwise, see `resolve`
+                // ReturnType value = this.$method.get();
+                // Events.commitResolution(event, "Owner.method");
+                // return value;
+                // For a non-abstract method, `this.method$dependency()` gets called instead of `this.$method.get()`.
                 void generateProxyMethod() {
                     final MethodVisitor mv = beginMethod(methodName);
-                    mv.visitFieldInsn(GETFIELD, proxyName, fieldName, dependencyProviderDesc);
-                    mv.visitMethodInsn(INVOKEINTERFACE, dependencyProviderName, "get", ACCEPTS_NOTHING_AND_RETURNS_OBJECT_DESC, true);
-                    if (!boxedReturnType.isAssignableFrom(Object.class)) {
-                        mv.visitTypeInsn(CHECKCAST,
-                                boxedReturnType.isArray() ? boxedReturnTypeDesc : boxedReturnTypeName);
+                    final Label miss = new Label();
+                    mv.visitFieldInsn(GETFIELD, proxyName, initFieldName, "Z");
+                    mv.visitJumpInsn(IFEQ, miss);
+                    mv.visitVarInsn(ALOAD, 0);
+                    mv.visitFieldInsn(GETFIELD, proxyName, valueFieldName, returnTypeDesc);
+                    mv.visitInsn(returnOpCode);
+                    mv.visitLabel(miss);
+                    mv.visitFrame(F_SAME, 0, null, 0, null);
+                    if (cachingStrategy.isInlined()) {
+                        mv.visitVarInsn(ALOAD, 0);
+                        mv.visitMethodInsn(INVOKESPECIAL, proxyName, cacheName, methodDesc, false);
+                    } else if (cachingStrategy.isDecorating()) {
+                        mv.visitVarInsn(ALOAD, 0);
+                        getDependency(mv);
+                    } else {
+                        resolve(mv);
+                    }
+                    endMethod(mv);
+                }
+
+                // Like the proxy method:
+                // if (!this.$method$init) { this.$method$value = this.$method.get(); this.$method$init = true; }
+                // return this.$method$value;
+                // For the thread-safe strategy, this is guarded by a lock, see `generateThreadSafeCacheMethod`.
+                void generateCacheMethod() {
+                    if (threadSafe) {
+                        generateThreadSafeCacheMethod();
+                        return;
+                    }
+                    final MethodVisitor mv = cv.visitMethod(ACC_PRIVATE_SYNTHETIC, cacheName, methodDesc, null, null);
+                    final Label hit = new Label();
+                    mv.visitCode();
+                    mv.visitVarInsn(ALOAD, 0);
+                    mv.visitFieldInsn(GETFIELD, proxyName, initFieldName, "Z");
+                    mv.visitJumpInsn(IFNE, hit);
+                    initialize(mv);
+                    mv.visitLabel(hit);
+                    mv.visitFrame(F_SAME, 0, null, 0, null);
+                    mv.visitVarInsn(ALOAD, 0);
+                    mv.visitFieldInsn(GETFIELD, proxyName, valueFieldName, returnTypeDesc);
+                    endMethod(mv);
+                }
+
+                // ReentrantLock lock = this.$method$lock;
+                // if (lock == null) lock = this.method$lock();
+                // if (!lock.tryLock()) Events.lock(lock, "Owner.method");
+                // try {
+                //     if (!this.$method$init) { this.$method$value = this.$method.get(); this.$method$init = true; }
+                // } finally {
+                //     lock.unlock();
+                // }
+                // return this.$method$value;
+                // Unlike a monitor, the lock doesn't pin a virtual thread to its carrier thread while resolving the
+                // dependency.
+                // If the lock is contended, waiting for it gets recorded as a JFR event, see `Events`.
+                void generateThreadSafeCacheMethod() {
+                    final MethodVisitor mv = cv.visitMethod(ACC_PRIVATE_SYNTHETIC, cacheName, methodDesc, null, null);
+                    final Label exists = new Label();
+                    final Label locked = new Label();
+                    final Label unlock = new Label();
+                    final Label handler = new Label();
+                    mv.visitCode();
+                    mv.visitTryCatchBlock(locked, unlock, handler, null);
+                    mv.visitVarInsn(ALOAD, 0);
+                    mv.visitFieldInsn(GETFIELD, proxyName, lockFieldName, REENTRANT_LOCK_DESC);
+                    mv.visitInsn(DUP);
+                    mv.visitJumpInsn(IFNONNULL, exists);
+                    mv.visitInsn(POP);
+                    mv.visitVarInsn(ALOAD, 0);
+                    mv.visitMethodInsn(INVOKESPECIAL,
+                            proxyName,
+                            lockName,
+                            ACCEPTS_NOTHING_AND_RETURNS_REENTRANT_LOCK_DESC,
+                            false);
+                    mv.visitLabel(exists);
+                    mv.visitFrame(F_SAME1, 0, null, 1, new Object[]{REENTRANT_LOCK_NAME});
+                    mv.visitVarInsn(ASTORE, 1);
+                    mv.visitVarInsn(ALOAD, 1);
+                    mv.visitMethodInsn(INVOKEVIRTUAL, REENTRANT_LOCK_NAME, "tryLock", "()Z", false);
+                    mv.visitJumpInsn(IFNE, locked);
+                    mv.visitVarInsn(ALOAD, 1);
+                    mv.visitLdcInsn(ownerName.replace('/', '.') + '.' + methodName);
+                    mv.visitMethodInsn(INVOKESTATIC, EVENTS_NAME, "lock", EVENTS_LOCK_DESC, false);
+                    mv.visitLabel(locked);
+                    mv.visitFrame(F_APPEND, 1, new Object[]{REENTRANT_LOCK_NAME}, 0, null);
+                    mv.visitVarInsn(ALOAD, 0);
+                    mv.visitFieldInsn(GETFIELD, proxyName, initFieldName, "Z");
+                    mv.visitJumpInsn(IFNE, unlock);
+                    initialize(mv);
+                    mv.visitLabel(unlock);
+                    mv.visitFrame(F_SAME, 0, null, 0, null);
+                    mv.visitVarInsn(ALOAD, 1);
+                    mv.visitMethodInsn(INVOKEVIRTUAL, REENTRANT_LOCK_NAME, "unlock", ACCEPTS_NOTHING_AND_RETURNS_VOID_DESC, false);
+                    mv.visitVarInsn(ALOAD, 0);
+                    mv.visitFieldInsn(GETFIELD, proxyName, valueFieldName, returnTypeDesc);
+                    mv.visitInsn(returnOpCode);
+                    mv.visitLabel(handler);
+                    mv.visitFrame(F_SAME1, 0, null, 1, new Object[]{"java/lang/Throwable"});
+                    mv.visitVarInsn(ALOAD, 1);
+                    mv.visitMethodInsn(INVOKEVIRTUAL, REENTRANT_LOCK_NAME, "unlock", ACCEPTS_NOTHING_AND_RETURNS_VOID_DESC, false);
+                    mv.visitInsn(ATHROW);
+                    mv.visitMaxs(-1, -1);
+                    mv.visitEnd();
+                }
+
+                // Object event = Events.beginResolution();
+                // this.$method$value = this.$method.get();
+                // Events.commitResolution(event, "Owner.method");
+                // this.$method$init = true;
+                void initialize(final MethodVisitor mv) {
+                    mv.visitVarInsn(ALOAD, 0);
+                    resolve(mv);
+                    mv.visitFieldInsn(PUTFIELD, proxyName, valueFieldName, returnTypeDesc);
+                    mv.visitVarInsn(ALOAD, 0);
+                    mv.visitInsn(ICONST_1);
+                    mv.visitFieldInsn(PUTFIELD, proxyName, initFieldName, "Z");
+                }
+
+                // Pushes the dependency onto the operand stack and records the time it took to resolve it, see
+                // `Events`.
+                // The event stays on the operand stack, so that no local variable and no stack map frame is required.
+                void resolve(final MethodVisitor mv) {
+                    mv.visitMethodInsn(INVOKESTATIC, EVENTS_NAME, "beginResolution", ACCEPTS_NOTHING_AND_RETURNS_OBJECT_DESC, false);
+                    mv.visitVarInsn(ALOAD, 0);
+                    getDependency(mv);
+                    // Swap the event and the dependency:
+                    if (2 == returnType.getSize()) {
+                        mv.visitInsn(DUP2_X1);
+                        mv.visitInsn(POP2);
+                    } else {
+                        mv.visitInsn(SWAP);
+                    }
+                    mv.visitLdcInsn(ownerName.replace('/', '.') + '.' + methodName);
+                    mv.visitMethodInsn(INVOKESTATIC, EVENTS_NAME, "commitResolution", EVENTS_COMMIT_RESOLUTION_DESC, false);
+                }
+
+                // if (this.$method == null) return super.method();
+                // return this.$method.get();
+                // This saves the proxy constructor from creating a dependency provider for each non-abstract method:
+                // The proxy factory sets the field only if the method is bound or its caching strategy decorates the
+                // dependency provider.
+                void generateDependencyMethod() {
+                    final MethodVisitor mv = cv.visitMethod(ACC_PRIVATE_SYNTHETIC, dependencyName, methodDesc, null, null);
+                    final Label bound = new Label();
+                    mv.visitCode();
+                    mv.visitVarInsn(ALOAD, 0);
+                    mv.visitFieldInsn(GETFIELD, proxyName, fieldName, providerType.desc);
+                    mv.visitJumpInsn(IFNONNULL, bound);
+                    mv.visitVarInsn(ALOAD, 0);
+                    mv.visitMethodInsn(INVOKESPECIAL, ownerName, methodName, methodDesc, ownerIsIface);
+                    mv.visitInsn(returnOpCode);
+                    mv.visitLabel(bound);
+                    mv.visitFrame(F_SAME, 0, null, 0, null);
+                    mv.visitVarInsn(ALOAD, 0);
+                    invokeProvider(mv);
+                    endMethod(mv);
+                }
+
+                // Expects `this` on the operand stack and replaces it with the dependency, which is either the
+                // return value of `this.method$dependency()` for a non-abstract method or else the result of
+                // `invokeProvider`:
+                void getDependency(final MethodVisitor mv) {
+                    if (method.isAbstract()) {
+                        invokeProvider(mv);
+                    } else {
+                        mv.visitMethodInsn(INVOKESPECIAL, proxyName, dependencyName, methodDesc, false);
+                    }
+                }
+
+                // Expects `this` on the operand stack and replaces it with the return value of
+                // `this.$method.getAsInt()` etc. for a primitive dependency provider or else the (unboxed) return
+                // value of `this.$method.get()`:
+                void invokeProvider(final MethodVisitor mv) {
+                    mv.visitFieldInsn(GETFIELD, proxyName, fieldName, providerType.desc);
+                    mv.visitMethodInsn(INVOKEINTERFACE, providerType.name, providerType.getterName, providerType.getterDesc, true);
+                    if (providerType.isPrimitive()) {
+                        if (providerType.narrowingOpCode != NOP) {
+                            mv.visitInsn(providerType.narrowingOpCode);
+                        }
+                        return;
+                    }
+                    checkcastAndUnbox(mv);
+                }
+
+                // Replaces the object on top of the operand stack with the result of casting it to the return type
+                // or unboxing it if the return type is primitive:
+                void checkcastAndUnbox(final MethodVisitor mv) {
+                    if (!OBJECT_DESC.equals(boxedReturnType.getDescriptor())) {
+                        mv.visitTypeInsn(CHECKCAST, boxedReturnTypeName);
                     }
                     if (boxedReturnType != returnType) {
-                        assert !returnType.isArray();
+                        assert returnType.getSort() != Type.ARRAY;
                         mv.visitMethodInsn(INVOKEVIRTUAL,
                                 boxedReturnTypeName,
                                 returnTypeName + "Value",
                                 "()" + returnTypeDesc,
                                 false);
                     }
-                    endMethod(mv);
                 }
 
+                // return super.method();
+                // The proxy factory calls this method via reflection if it needs a dependency provider for calling
+                // the super method, see `ProxyFactory.MethodHandler.superProvider`.
+                // This is not required for a hidden class because then the proxy factory looks up a method handle
+                // for the super method instead.
                 void generateShimMethod() {
                     final MethodVisitor mv = beginMethod(shimName);
                     mv.visitMethodInsn(INVOKESPECIAL, ownerName, methodName, methodDesc, ownerIsIface);
@@ -247,30 +596,106 @@ final class ProxyClassVisitor extends ClassVisitor {
         }
     }
 
-    private static String proxyFieldName(Method method) {
-        return ((MethodInfo) () -> method).proxyFieldName();
+    /**
+     * Returns the type of dependency provider to use for the given return type.
+     * This must match {@link DependencyProviders#adapt}.
+     */
+    private static ProviderType providerType(final Type returnType) {
+        switch (returnType.getSort()) {
+            case Type.INT:
+                return intProviderType;
+            case Type.SHORT:
+                return shortProviderType;
+            case Type.CHAR:
+                return charProviderType;
+            case Type.BYTE:
+                return byteProviderType;
+            case Type.LONG:
+                return longProviderType;
+            case Type.DOUBLE:
+                return doubleProviderType;
+            case Type.FLOAT:
+                return floatProviderType;
+            default:
+                return objectProviderType;
+        }
     }
 
-    private static int returnOpCode(final Method method) {
-        final Class<?> returnType = method.getReturnType();
-        if (returnType.isPrimitive()) {
-            if (returnType == Void.TYPE) {
-                throw new BreedingException("Method has void return type: " + method);
-            } else if (returnType == Double.TYPE) {
-                return DRETURN;
-            } else if (returnType == Float.TYPE) {
-                return FRETURN;
-            } else if (returnType == Long.TYPE) {
-                return LRETURN;
-            } else {
-                return IRETURN;
-            }
+    private static void push(final MethodVisitor mv, final int value) {
+        if (value <= 5) {
+            mv.visitInsn(ICONST_0 + value);
+        } else if (value <= Byte.MAX_VALUE) {
+            mv.visitIntInsn(BIPUSH, value);
+        } else if (value <= Short.MAX_VALUE) {
+            mv.visitIntInsn(SIPUSH, value);
         } else {
-            if (returnType == Void.class) {
-                throw new BreedingException("Method has Void return type: " + method);
-            } else {
-                return ARETURN;
-            }
+            mv.visitLdcInsn(value);
+        }
+    }
+
+    private static Type boxed(final Type type) {
+        switch (type.getSort()) {
+            case Type.BOOLEAN:
+                return getType(Boolean.class);
+            case Type.CHAR:
+                return getType(Character.class);
+            case Type.BYTE:
+                return getType(Byte.class);
+            case Type.DOUBLE:
+                return getType(Double.class);
+            case Type.FLOAT:
+                return getType(Float.class);
+            case Type.LONG:
+                return getType(Long.class);
+            case Type.INT:
+                return getType(Integer.class);
+            case Type.SHORT:
+                return getType(Short.class);
+            case Type.VOID:
+                return getType(Void.class);
+            default:
+                return type;
+        }
+    }
+
+    private static int returnOpCode(final ProxyMethod method) {
+        final Type returnType = method.returnType();
+        if (returnType.getSort() == Type.VOID) {
+            throw new BreedingException("Method has void return type: " + method.ownerName() + '.' + method.name() + method.descriptor());
+        } else if (returnType.getDescriptor().equals("Ljava/lang/Void;")) {
+            throw new BreedingException("Method has Void return type: " + method.ownerName() + '.' + method.name() + method.descriptor());
+        } else {
+            return returnType.getOpcode(IRETURN);
+        }
+    }
+
+    private static final class ProviderType {
+
+        final String name, desc, getterName, getterDesc;
+        final int narrowingOpCode;
+
+        ProviderType(final Class<?> clazz, final String getterName, final String getterDesc, final int narrowingOpCode) {
+            this(getInternalName(clazz), getDescriptor(clazz), getterName, getterDesc, narrowingOpCode);
+        }
+
+        private ProviderType(final String name,
+                             final String desc,
+                             final String getterName,
+                             final String getterDesc,
+                             final int narrowingOpCode) {
+            this.name = name;
+            this.desc = desc;
+            this.getterName = getterName;
+            this.getterDesc = getterDesc;
+            this.narrowingOpCode = narrowingOpCode;
+        }
+
+        ProviderType narrowedBy(final int narrowingOpCode) {
+            return new ProviderType(name, desc, getterName, getterDesc, narrowingOpCode);
+        }
+
+        boolean isPrimitive() {
+            return !ACCEPTS_NOTHING_AND_RETURNS_OBJECT_DESC.equals(getterDesc);
         }
     }
 }
@@ -22,6 +22,8 @@ import java.util.ArrayList;
 import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
+import java.util.function.BiConsumer;
+import java.util.stream.Collectors;
 
 import static global.namespace.neuron.di.internal.Reflection.overridableMethods;
 import static java.lang.reflect.Modifier.PROTECTED;
@@ -41,6 +43,13 @@ final class ProxyContext<C> {
         return new ProxyFactory<>(adaptedClass, bindableElements(adaptedClass));
     }
 
+    void precompile(final BiConsumer<String, byte[]> consumer) {
+        final Class<? extends C> adaptedClass = adaptedClass();
+        ASM.precompileProxyClass(adaptedClass,
+                bindableElements(adaptedClass).stream().map(ProxyMethod::of).collect(Collectors.toList()),
+                consumer);
+    }
+
     private Class<? extends C> adaptedClass() {
         final Class<C> clazz = clazz();
         return Optional
@@ -23,131 +23,222 @@ import java.lang.invoke.MethodHandles;
 import java.lang.invoke.MethodType;
 import java.lang.reflect.Constructor;
 import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.Comparator;
 import java.util.List;
+import java.util.Optional;
 import java.util.function.Function;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
+import static global.namespace.neuron.di.internal.Reflection.findSuper;
+import static global.namespace.neuron.di.internal.Reflection.isHidden;
 import static java.lang.invoke.MethodHandles.publicLookup;
 import static java.lang.invoke.MethodType.methodType;
 
 final class ProxyFactory<C> implements Function<MethodBinding, C> {
 
-    private static final MethodType dependencyProviderObjectMethodType =
-            methodType(DependencyProvider.class, Object.class);
+    private static final MethodType objectObjectMethodType =
+            methodType(Object.class, Object.class);
 
     private static final MethodType voidObjectDependencyProviderMethodType =
             methodType(Void.TYPE, Object.class, DependencyProvider.class);
 
-    private static final MethodType objectMethodType =
-            methodType(Object.class);
+    private static final MethodType objectObjectArrayMethodType =
+            methodType(Object.class, Object[].class);
 
-    private final Class<? extends C> proxyClass;
+    private final Class<? extends C> neuronClass, proxyClass;
+    private final boolean hidden;
     private final MethodHandle constructorHandle;
-    private final List<MethodHandler> methodHandlers;
+    private final MethodHandler[] methodHandlers;
 
+    @SuppressWarnings({"unchecked", "rawtypes"})
     ProxyFactory(final Class<? extends C> clazz, final List<MethodElement<C>> bindableElements) {
-        this.proxyClass = ASM.proxyClass(clazz, map(bindableElements, MethodElement<C>::method));
+        // The proxy constructor expects the dependency providers in this order:
+        final List<MethodElement<C>> sortedElements = new ArrayList<>(bindableElements);
+        sortedElements.sort(Comparator.comparing(ProxyMethod::of, ProxyMethod.ORDER));
+        this.neuronClass = clazz;
+        this.proxyClass = ASM.proxyClass(clazz, map(sortedElements, ProxyMethod::of));
+        this.hidden = isHidden(proxyClass);
         try {
-            final Constructor<?> c = proxyClass.getDeclaredConstructor();
+            final Constructor<?> c = proxyClass.getDeclaredConstructor(Object[].class);
             c.setAccessible(true);
-            this.constructorHandle = publicLookup().unreflectConstructor(c).asType(objectMethodType);
+            this.constructorHandle = publicLookup().unreflectConstructor(c).asType(objectObjectArrayMethodType);
         } catch (ReflectiveOperationException e) {
             throw new BreedingException(e);
         }
-        this.methodHandlers = map(bindableElements, MethodHandler::new);
+        this.methodHandlers = map(sortedElements, MethodHandler::new).toArray(new ProxyFactory.MethodHandler[0]);
+    }
+
+    /**
+     * Returns the distinct return types of the synapse methods of the proxied class.
+     */
+    List<Class<?>> synapseTypes() {
+        return Stream
+                .of(methodHandlers)
+                .map(handler -> handler.element)
+                .filter(MethodInfo::isAbstract)
+                .map(MethodInfo::returnType)
+                .distinct()
+                .collect(Collectors.toList());
+    }
+
+    /**
+     * Returns the bindable methods of the proxied class with a caching strategy which shares the cached value between
+     * threads.
+     */
+    List<Method> sharedCachingMethods() {
+        return Stream
+                .of(methodHandlers)
+                .map(handler -> handler.element)
+                .filter(element -> element.realCachingStrategy().isShared())
+                .map(MethodInfo::method)
+                .collect(Collectors.toList());
+    }
+
+    Class<? extends C> proxyClass() {
+        return proxyClass;
     }
 
     private static <T, U> List<U> map(List<T> list, Function<? super T, ? extends U> fun) {
         return list.stream().map(fun).collect(Collectors.toList());
     }
 
+    /**
+     * Looks up the dependency providers for all bindable methods and passes them to the proxy constructor in one
+     * call, which assigns the fields of the proxy directly.
+     * Only non-abstract methods with a decorating caching strategy need to get bound after construction because their
+     * dependency provider needs to call the super method of the proxy.
+     */
     @SuppressWarnings("unchecked")
     @Override
     public C apply(final MethodBinding binding) {
-        return new Visitor<C>() {
-
-            final C proxy;
-
-            BoundMethodHandler boundMethodHandler;
-
-            {
-                try {
-                    proxy = (C) constructorHandle.invokeExact();
-                } catch (Throwable e) {
-                    throw new BreedingException(e);
-                }
-                for (final MethodHandler handler : methodHandlers) {
-                    boundMethodHandler = handler.bind(proxy);
-                    handler.accept(this);
+        final Object event = Events.beginBreed();
+        final MethodHandler[] handlers = methodHandlers;
+        final int length = handlers.length;
+        final Object[] args = new Object[2 * length];
+        boolean decorateSuper = false;
+        for (int i = 0; i < length; i++) {
+            decorateSuper |= handlers[i].bind(binding, args, 2 * i);
+        }
+        final C proxy;
+        try {
+            proxy = (C) constructorHandle.invokeExact(args);
+        } catch (Throwable e) {
+            throw new BreedingException(e);
+        }
+        if (decorateSuper) {
+            for (int i = 0; i < length; i++) {
+                if (null == args[2 * i] && null == args[2 * i + 1]) {
+                    handlers[i].bindSuper(proxy);
                 }
             }
+        }
+        if (null != event) {
+            Events.commitBreed(event, neuronClass, length, bindings(args));
+        }
+        return proxy;
+    }
 
-            @Override
-            public void visitSynapse(SynapseElement<C> element) {
-                boundMethodHandler.provider(element.decorate(binding.apply(element)
-                        .orElseThrow(() -> new BreedingException("No binding defined for synapse method: " + element.method()))));
-            }
-
-            @Override
-            public void visitMethod(MethodElement<C> element) {
-                boundMethodHandler.provider(element.decorate(binding.apply(element)
-                        .orElseGet(boundMethodHandler::provider)));
+    private static int bindings(final Object[] args) {
+        int bindings = 0;
+        for (int i = 0; i < args.length; i += 2) {
+            if (null != args[i] || null != args[i + 1]) {
+                bindings++;
             }
-
-        }.proxy;
+        }
+        return bindings;
     }
 
     private final class MethodHandler {
 
         final MethodElement<C> element;
-        final MethodHandle getter, setter;
+        final boolean synapse, decorating;
+        final Class<?> boxedReturnType;
+        final MethodHandle setter, superMethod;
+        final SynapseMetrics metrics;
 
         MethodHandler(final MethodElement<C> element) {
             this.element = element;
-            final String fieldName = element.proxyFieldName();
+            this.metrics = SynapseMetrics.ENABLED ? SynapseMetrics.of(neuronClass, element) : null;
+            this.synapse = element.isAbstract();
+            this.decorating = element.realCachingStrategy().isDecorating();
+            this.boxedReturnType = methodType(element.returnType()).wrap().returnType();
             final MethodHandles.Lookup lookup = publicLookup();
             try {
-                final Field field = proxyClass.getDeclaredField(fieldName);
+                final Field field = proxyClass.getDeclaredField(element.proxyFieldName());
                 field.setAccessible(true);
-                this.getter = lookup.unreflectGetter(field).asType(dependencyProviderObjectMethodType);
                 this.setter = lookup.unreflectSetter(field).asType(voidObjectDependencyProviderMethodType);
+                if (synapse) {
+                    this.superMethod = null;
+                } else if (hidden) {
+                    this.superMethod = findSuper(proxyClass, element.method()).asType(objectObjectMethodType);
+                } else {
+                    final Method shimMethod = proxyClass.getDeclaredMethod(element.method().getName() + "$shim");
+                    shimMethod.setAccessible(true);
+                    this.superMethod = lookup.unreflect(shimMethod).asType(objectObjectMethodType);
+                }
             } catch (ReflectiveOperationException e) {
                 throw new AssertionError(e);
             }
         }
 
-        BoundMethodHandler bind(final C proxy) {
-            return new BoundMethodHandler() {
-
-                @Override
-                public DependencyProvider<?> provider() {
-                    try {
-                        return (DependencyProvider<?>) getter.invokeExact(proxy);
-                    } catch (Throwable e) {
-                        throw new AssertionError(e);
-                    }
-                }
+        /**
+         * Looks up the binding for the method and stores the dependency provider at the given index of the given
+         * array of constructor arguments or, if it's a constant, at the next index.
+         * Returns {@code true} if the method is not bound but its caching strategy decorates the dependency provider
+         * for calling the super method, so it needs to get {@linkplain #bindSuper bound} after construction.
+         * Otherwise, if the method is not bound, the proxy method calls the super method directly.
+         */
+        boolean bind(final MethodBinding binding, final Object[] args, final int index) {
+            final Optional<DependencyProvider<?>> optionalProvider = binding.apply(element);
+            final DependencyProvider<?> provider;
+            if (synapse) {
+                provider = optionalProvider.orElseThrow(() ->
+                        new BreedingException("No binding defined for synapse method: " + element.method()));
+            } else if (optionalProvider.isPresent()) {
+                provider = optionalProvider.get();
+            } else {
+                return decorating;
+            }
+            if (isConstant(provider)) {
+                args[index + 1] = provider;
+            } else {
+                args[index] = DependencyProviders.adapt(element.method(), decorate(provider));
+            }
+            return false;
+        }
 
-                @Override
-                public void provider(final DependencyProvider<?> provider) {
-                    try {
-                        setter.invokeExact(proxy, provider);
-                    } catch (Throwable e) {
-                        throw new AssertionError(e);
-                    }
+        void bindSuper(final C proxy) {
+            if (decorating) {
+                final DependencyProvider<?> provider = () -> superMethod.invokeExact((Object) proxy);
+                try {
+                    setter.invokeExact((Object) proxy,
+                            DependencyProviders.adapt(element.method(), decorate(provider)));
+                } catch (Throwable e) {
+                    throw new AssertionError(e);
                 }
-            };
+            }
         }
 
-        void accept(Visitor<C> visitor) {
-            element.accept(visitor);
+        DependencyProvider<?> decorate(final DependencyProvider<?> provider) {
+            return null != metrics
+                    ? metrics.decorate(element, DependencyProviders.box(element.method(), provider))
+                    : element.decorate(provider);
         }
-    }
 
-    private interface BoundMethodHandler {
-
-        DependencyProvider<?> provider();
-
-        void provider(DependencyProvider<?> provider);
+        boolean isConstant(final DependencyProvider<?> provider) {
+            // If the constant doesn't match the return type, then the proxy method should throw a
+            // ClassCastException or NullPointerException when called, just like with any other provider:
+            if (provider instanceof ConstantProvider) {
+                final Object value = ((ConstantProvider<?>) provider).get();
+                return null == value
+                        ? !element.returnType().isPrimitive()
+                        : boxedReturnType.isInstance(value);
+            } else {
+                return false;
+            }
+        }
     }
 }
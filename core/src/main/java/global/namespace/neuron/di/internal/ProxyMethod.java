@@ -0,0 +1,132 @@
+/*
+ * Copyright © 2016 - 2021 Schlichtherle IT Services
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package global.namespace.neuron.di.internal;
+
+import org.objectweb.asm.Type;
+
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.util.Comparator;
+
+import static org.objectweb.asm.Type.getInternalName;
+import static org.objectweb.asm.Type.getMethodDescriptor;
+
+/**
+ * Describes a bindable method of a proxy class in terms of the class file format.
+ * This enables generating proxy classes from reflective {@link Method}s at runtime as well as from
+ * {@link javax.lang.model.element.ExecutableElement}s at compile time.
+ */
+interface ProxyMethod {
+
+    /**
+     * Orders bindable methods by their {@linkplain #fingerprint() fingerprint}.
+     * The constructor of a proxy class expects the dependency providers in this order, so that it doesn't depend on
+     * the order of reflection at runtime or of the elements at compile time.
+     */
+    Comparator<ProxyMethod> ORDER = Comparator.comparing(ProxyMethod::fingerprint);
+
+    static ProxyMethod of(final MethodElement<?> element) {
+        final Method method = element.method();
+        final Class<?> owner = method.getDeclaringClass();
+        return of(method.getModifiers(),
+                getInternalName(owner),
+                owner.isInterface(),
+                method.getName(),
+                getMethodDescriptor(method),
+                element.realCachingStrategy());
+    }
+
+    static ProxyMethod of(final int modifiers,
+                          final String ownerName,
+                          final boolean ownerIsInterface,
+                          final String name,
+                          final String descriptor,
+                          final RealCachingStrategy cachingStrategy) {
+        final int access = modifiers & Modifier.methodModifiers();
+        return new ProxyMethod() {
+
+            @Override
+            public int access() {
+                return access;
+            }
+
+            @Override
+            public String ownerName() {
+                return ownerName;
+            }
+
+            @Override
+            public boolean ownerIsInterface() {
+                return ownerIsInterface;
+            }
+
+            @Override
+            public String name() {
+                return name;
+            }
+
+            @Override
+            public String descriptor() {
+                return descriptor;
+            }
+
+            @Override
+            public RealCachingStrategy cachingStrategy() {
+                return cachingStrategy;
+            }
+        };
+    }
+
+    /**
+     * Returns the modifiers of this method, restricted to the {@linkplain Modifier#methodModifiers() method modifiers}
+     * of the Java language.
+     */
+    int access();
+
+    /**
+     * Returns the internal name of the class or interface which declares this method.
+     */
+    String ownerName();
+
+    boolean ownerIsInterface();
+
+    String name();
+
+    String descriptor();
+
+    RealCachingStrategy cachingStrategy();
+
+    default boolean isAbstract() {
+        return Modifier.isAbstract(access());
+    }
+
+    default Type returnType() {
+        return Type.getReturnType(descriptor());
+    }
+
+    default String proxyFieldName() {
+        // Must match MethodInfo.proxyFieldName():
+        return '$' + name();
+    }
+
+    /**
+     * Returns a string which identifies this method when computing the fingerprint of a proxy class.
+     */
+    default String fingerprint() {
+        return access() + " " + ownerName() + (ownerIsInterface() ? " interface " : " class ") + name() + descriptor()
+                + " " + cachingStrategy();
+    }
+}
@@ -0,0 +1,379 @@
+/*
+ * Copyright © 2016 - 2021 Schlichtherle IT Services
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package global.namespace.neuron.di.internal;
+
+import global.namespace.neuron.di.java.Caching;
+import global.namespace.neuron.di.java.Neuron;
+import org.objectweb.asm.AnnotationVisitor;
+import org.objectweb.asm.ClassVisitor;
+import org.objectweb.asm.Type;
+
+import javax.annotation.processing.ProcessingEnvironment;
+import javax.lang.model.element.Element;
+import javax.lang.model.element.*;
+import javax.lang.model.type.ArrayType;
+import javax.lang.model.type.DeclaredType;
+import javax.lang.model.type.TypeKind;
+import javax.lang.model.type.TypeMirror;
+import javax.lang.model.util.Elements;
+import javax.lang.model.util.SimpleAnnotationValueVisitor8;
+import javax.lang.model.util.Types;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.lang.annotation.Annotation;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.util.*;
+
+import static global.namespace.neuron.di.internal.ASM.internalName;
+import static global.namespace.neuron.di.java.CachingStrategy.DISABLED;
+import static javax.lang.model.element.ElementKind.METHOD;
+import static org.objectweb.asm.Opcodes.*;
+
+/**
+ * Generates proxy classes for neuron types at compile time.
+ * The computation of the bindable methods mirrors {@link Reflection#overridableMethods(Class)} and
+ * {@link ProxyContext}, so that the runtime can {@linkplain ASM#proxyClass(Class, List) pick up} the generated class
+ * files instead of generating them again.
+ * If the mirror ever goes out of sync, then the fingerprint in the name of the generated class files won't match and
+ * the runtime just falls back to generating the proxy classes.
+ */
+final class ProxyPrecompiler {
+
+    private final ProcessingEnvironment env;
+
+    ProxyPrecompiler(final ProcessingEnvironment env) {
+        this.env = env;
+    }
+
+    /**
+     * Writes a class file with a proxy class for the given neuron type.
+     * Returns {@code false} if the given neuron type is not eligible for precompilation, e.g. because it has a synapse
+     * method with parameters, which is an error at runtime.
+     */
+    boolean precompile(final TypeElement type) throws IOException {
+        final Optional<List<ProxyMethod>> bindableMethods = bindableMethods(type);
+        if (!bindableMethods.isPresent()) {
+            return false;
+        }
+        final List<ProxyMethod> methods = bindableMethods.get();
+        final boolean isInterface = type.getKind().isInterface();
+        final String name = binaryName(type);
+        final String superName = isInterface ? "java/lang/Object" : internalName(name);
+        final String proxyName = ASM.precompiledProxyName(name, superName, methods);
+        final byte[] b = ASM.proxyClassBytes(cv -> {
+                    cv.visit(V1_8,
+                            type.getModifiers().contains(Modifier.PUBLIC) ? ACC_PUBLIC : 0,
+                            internalName(name),
+                            null,
+                            superName,
+                            null);
+                    visitAnnotations(type, cv);
+                    cv.visitEnd();
+                },
+                internalName(proxyName),
+                superName,
+                ASM.interfaces(internalName(name), isInterface, methods),
+                methods,
+                false);
+        try (OutputStream out = env.getFiler().createClassFile(proxyName, type).openOutputStream()) {
+            out.write(b);
+        }
+        return true;
+    }
+
+    /**
+     * Visits the annotations of the given type with a retention policy other than {@link RetentionPolicy#SOURCE},
+     * just like a {@link org.objectweb.asm.ClassReader} would do when reading the class file.
+     */
+    private void visitAnnotations(final TypeElement type, final ClassVisitor cv) {
+        for (final AnnotationMirror annotation : type.getAnnotationMirrors()) {
+            final TypeElement annotationType = (TypeElement) annotation.getAnnotationType().asElement();
+            final RetentionPolicy policy = Optional
+                    .ofNullable(annotationType.getAnnotation(Retention.class))
+                    .map(Retention::value)
+                    .orElse(RetentionPolicy.CLASS);
+            if (policy != RetentionPolicy.SOURCE) {
+                final AnnotationVisitor av = cv.visitAnnotation(descriptor(annotationType.asType()),
+                        policy == RetentionPolicy.RUNTIME);
+                visitElementValues(annotation, av);
+                av.visitEnd();
+            }
+        }
+    }
+
+    private void visitElementValues(final AnnotationMirror annotation, final AnnotationVisitor av) {
+        annotation.getElementValues().forEach((element, value) ->
+                visitAnnotationValue(element.getSimpleName().toString(), value, av));
+    }
+
+    private void visitAnnotationValue(final String name, final AnnotationValue value, final AnnotationVisitor av) {
+        value.accept(new SimpleAnnotationValueVisitor8<Void, Void>() {
+
+            @Override
+            protected Void defaultAction(Object o, Void unused) {
+                av.visit(name, o);
+                return null;
+            }
+
+            @Override
+            public Void visitType(TypeMirror t, Void unused) {
+                av.visit(name, Type.getType(descriptor(t)));
+                return null;
+            }
+
+            @Override
+            public Void visitEnumConstant(VariableElement c, Void unused) {
+                av.visitEnum(name, descriptor(c.asType()), c.getSimpleName().toString());
+                return null;
+            }
+
+            @Override
+            public Void visitAnnotation(AnnotationMirror a, Void unused) {
+                final AnnotationVisitor nested = av.visitAnnotation(name, descriptor(a.getAnnotationType()));
+                visitElementValues(a, nested);
+                nested.visitEnd();
+                return null;
+            }
+
+            @Override
+            public Void visitArray(List<? extends AnnotationValue> values, Void unused) {
+                final AnnotationVisitor array = av.visitArray(name);
+                values.forEach(v -> visitAnnotationValue(null, v, array));
+                array.visitEnd();
+                return null;
+            }
+        }, null);
+    }
+
+    private Optional<List<ProxyMethod>> bindableMethods(final TypeElement type) {
+        final PackageElement pkg = elements().getPackageOf(type);
+        final List<ProxyMethod> bindableMethods = new ArrayList<>();
+        for (final ExecutableElement method : overridableMethods(type)) {
+            final Set<Modifier> mods = method.getModifiers();
+            if (mods.contains(Modifier.PROTECTED) || mods.contains(Modifier.PUBLIC)
+                    || elements().getPackageOf(method).equals(pkg)) {
+                final boolean hasParameters = !method.getParameters().isEmpty();
+                final boolean isVoid = isVoid(method.getReturnType());
+                if (mods.contains(Modifier.ABSTRACT)) {
+                    if (hasParameters || isVoid) {
+                        return Optional.empty();
+                    }
+                } else if (hasParameters || isVoid) {
+                    continue;
+                }
+                final TypeElement owner = (TypeElement) method.getEnclosingElement();
+                bindableMethods.add(ProxyMethod.of(modifiers(mods),
+                        internalName(binaryName(owner)),
+                        owner.getKind().isInterface(),
+                        method.getSimpleName().toString(),
+                        descriptor(method),
+                        cachingStrategy(type, method)));
+            }
+        }
+        return Optional.of(bindableMethods);
+    }
+
+    /**
+     * Mirrors {@link ClassElement#element(java.lang.reflect.Method)}.
+     */
+    private RealCachingStrategy cachingStrategy(final TypeElement type, final ExecutableElement method) {
+        final Optional<String> declaredCachingStrategy = findAnnotation(Caching.class, method)
+                .map(annotation -> enumValue(annotation, "value"));
+        final String cachingStrategy;
+        if (method.getModifiers().contains(Modifier.ABSTRACT)) {
+            cachingStrategy = declaredCachingStrategy.orElseGet(() -> findAnnotation(Neuron.class, type)
+                    .map(annotation -> enumValue(annotation, "cachingStrategy"))
+                    .orElse(DISABLED.name()));
+        } else {
+            cachingStrategy = declaredCachingStrategy.orElse(DISABLED.name());
+        }
+        return RealCachingStrategy.valueOf(cachingStrategy);
+    }
+
+    /**
+     * Mirrors {@link Reflection#findAnnotation(Class)}.
+     */
+    private Optional<AnnotationMirror> findAnnotation(final Class<? extends Annotation> what, final Element where) {
+        return new Object() {
+
+            final Set<Element> visited = new HashSet<>();
+
+            Optional<AnnotationMirror> apply(final Element where) {
+                if (visited.add(where)) {
+                    for (final AnnotationMirror annotation : elements().getAllAnnotationMirrors(where)) {
+                        final TypeElement annotationType = (TypeElement) annotation.getAnnotationType().asElement();
+                        if (annotationType.getQualifiedName().contentEquals(what.getName())) {
+                            return Optional.of(annotation);
+                        }
+                        final Optional<AnnotationMirror> here = apply(annotationType);
+                        if (here.isPresent()) {
+                            return here;
+                        }
+                    }
+                }
+                return Optional.empty();
+            }
+        }.apply(where);
+    }
+
+    private String enumValue(final AnnotationMirror annotation, final String name) {
+        return elements()
+                .getElementValuesWithDefaults(annotation)
+                .entrySet()
+                .stream()
+                .filter(entry -> entry.getKey().getSimpleName().contentEquals(name))
+                .map(entry -> ((VariableElement) entry.getValue().getValue()).getSimpleName().toString())
+                .findFirst()
+                .orElseThrow(() -> new AssertionError("Missing annotation value: " + name));
+    }
+
+    private Collection<ExecutableElement> overridableMethods(final TypeElement type) {
+        final Map<String, ExecutableElement> methods = new LinkedHashMap<>();
+        new Object() {
+
+            final Set<TypeElement> visited = new HashSet<>();
+
+            void traverse(final TypeElement t) {
+                if (visited.add(t)) {
+                    for (final Element e : t.getEnclosedElements()) {
+                        if (e.getKind() == METHOD) {
+                            final Set<Modifier> mods = e.getModifiers();
+                            if (!mods.contains(Modifier.PRIVATE) && !mods.contains(Modifier.STATIC)) {
+                                final ExecutableElement method = (ExecutableElement) e;
+                                methods.merge(signature(method), method, ProxyPrecompiler.this::select);
+                            }
+                        }
+                    }
+                    typeElement(t.getSuperclass()).ifPresent(this::traverse);
+                    for (final TypeMirror iface : t.getInterfaces()) {
+                        typeElement(iface).ifPresent(this::traverse);
+                    }
+                }
+            }
+        }.traverse(type);
+        final Collection<ExecutableElement> values = methods.values();
+        values.removeIf(method -> method.getModifiers().contains(Modifier.FINAL));
+        return values;
+    }
+
+    private ExecutableElement select(final ExecutableElement old, final ExecutableElement noo) {
+        return isAssignable(noo.getEnclosingElement().asType(), old.getEnclosingElement().asType()) &&
+                isAssignable(noo.getReturnType(), old.getReturnType())
+                ? noo
+                : old;
+    }
+
+    private boolean isAssignable(final TypeMirror from, final TypeMirror to) {
+        final TypeMirror f = types().erasure(from), t = types().erasure(to);
+        return f.getKind().isPrimitive() || t.getKind().isPrimitive()
+                ? types().isSameType(f, t)
+                : types().isSubtype(f, t);
+    }
+
+    private String signature(final ExecutableElement method) {
+        final String desc = descriptor(method);
+        return method.getSimpleName() + desc.substring(0, desc.indexOf(')') + 1);
+    }
+
+    private String descriptor(final ExecutableElement method) {
+        final StringBuilder desc = new StringBuilder("(");
+        for (final VariableElement parameter : method.getParameters()) {
+            desc.append(descriptor(parameter.asType()));
+        }
+        return desc.append(')').append(descriptor(method.getReturnType())).toString();
+    }
+
+    private String descriptor(final TypeMirror type) {
+        final TypeMirror erasure = types().erasure(type);
+        switch (erasure.getKind()) {
+            case BOOLEAN:
+                return "Z";
+            case BYTE:
+                return "B";
+            case CHAR:
+                return "C";
+            case DOUBLE:
+                return "D";
+            case FLOAT:
+                return "F";
+            case INT:
+                return "I";
+            case LONG:
+                return "J";
+            case SHORT:
+                return "S";
+            case VOID:
+                return "V";
+            case ARRAY:
+                return "[" + descriptor(((ArrayType) erasure).getComponentType());
+            case DECLARED:
+                return "L" + internalName(binaryName((TypeElement) ((DeclaredType) erasure).asElement())) + ";";
+            default:
+                throw new IllegalArgumentException("Unsupported type: " + type);
+        }
+    }
+
+    private static int modifiers(final Set<Modifier> mods) {
+        int access = 0;
+        for (final Modifier mod : mods) {
+            switch (mod) {
+                case PUBLIC:
+                    access |= ACC_PUBLIC;
+                    break;
+                case PROTECTED:
+                    access |= ACC_PROTECTED;
+                    break;
+                case ABSTRACT:
+                    access |= ACC_ABSTRACT;
+                    break;
+                case SYNCHRONIZED:
+                    access |= ACC_SYNCHRONIZED;
+                    break;
+                case NATIVE:
+                    access |= ACC_NATIVE;
+                    break;
+                case STRICTFP:
+                    access |= ACC_STRICT;
+                    break;
+                default:
+            }
+        }
+        return access;
+    }
+
+    private static boolean isVoid(final TypeMirror type) {
+        return type.getKind() == TypeKind.VOID || type.toString().equals(Void.class.getName());
+    }
+
+    private static Optional<TypeElement> typeElement(final TypeMirror type) {
+        return type.getKind() == TypeKind.DECLARED
+                ? Optional.of((TypeElement) ((DeclaredType) type).asElement())
+                : Optional.empty();
+    }
+
+    private String binaryName(TypeElement type) {
+        return elements().getBinaryName(type).toString();
+    }
+
+    private Elements elements() {
+        return env.getElementUtils();
+    }
+
+    private Types types() {
+        return env.getTypeUtils();
+    }
+}
@@ -0,0 +1,70 @@
+/*
+ * Copyright © 2016 - 2021 Schlichtherle IT Services
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package global.namespace.neuron.di.internal;
+
+import global.namespace.neuron.di.java.CachingStrategy;
+import global.namespace.neuron.di.java.DependencyProvider;
+
+import java.util.IdentityHashMap;
+import java.util.Map;
+import java.util.concurrent.Callable;
+
+/**
+ * Implements the {@link CachingStrategy#SCOPED} caching strategy.
+ * The values are cached in a map which is referenced by a thread local only while the current thread executes a
+ * caching scope, so that they get released when the scope exits.
+ */
+public final class RealCachingScope {
+
+    private static final ThreadLocal<Map<DependencyProvider<?>, Object>> scopes = new ThreadLocal<>();
+
+    private RealCachingScope() {
+    }
+
+    public static <V> V call(final Callable<V> task) throws Exception {
+        if (null != scopes.get()) {
+            return task.call();
+        }
+        scopes.set(new IdentityHashMap<>());
+        try {
+            return task.call();
+        } finally {
+            scopes.remove();
+        }
+    }
+
+    static <D> DependencyProvider<D> decorate(final DependencyProvider<D> provider) {
+        return new DependencyProvider<D>() {
+
+            @Override
+            @SuppressWarnings("unchecked")
+            public D get() throws Throwable {
+                final Map<DependencyProvider<?>, Object> values = scopes.get();
+                if (null == values) {
+                    return provider.get();
+                }
+                D value = (D) values.get(this);
+                if (null == value && !values.containsKey(this)) {
+                    // The provider may recursively call this method for other synapse methods, so don't use
+                    // Map.computeIfAbsent here:
+                    value = provider.get();
+                    values.put(this, value);
+                }
+                return value;
+            }
+        };
+    }
+}
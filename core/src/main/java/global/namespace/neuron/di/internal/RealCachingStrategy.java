@@ -18,6 +18,9 @@ package global.namespace.neuron.di.internal;
 import global.namespace.neuron.di.java.CachingStrategy;
 import global.namespace.neuron.di.java.DependencyProvider;
 
+import java.lang.ref.SoftReference;
+import java.lang.ref.WeakReference;
+
 /**
  * Mirrors {@link CachingStrategy}.
  */
@@ -27,12 +30,7 @@ enum RealCachingStrategy {
      * @see #valueOf(CachingStrategy)
      */
     @SuppressWarnings("unused")
-    DISABLED {
-        @Override
-        <D> DependencyProvider<D> decorate(DependencyProvider<D> provider) {
-            return provider;
-        }
-    },
+    DISABLED,
 
     /**
      * @see #valueOf(CachingStrategy)
@@ -40,21 +38,13 @@ enum RealCachingStrategy {
     @SuppressWarnings("unused")
     NOT_THREAD_SAFE {
         @Override
-        <D> DependencyProvider<D> decorate(final DependencyProvider<D> provider) {
-            return new DependencyProvider<D>() {
-
-                boolean init;
-                D value;
+        boolean isInlined() {
+            return !SynapseMetrics.ENABLED;
+        }
 
-                @Override
-                public D get() throws Throwable {
-                    if (!init) {
-                        value = provider.get();
-                        init = true;
-                    }
-                    return value;
-                }
-            };
+        @Override
+        boolean isDecorating() {
+            return SynapseMetrics.ENABLED;
         }
     },
 
@@ -64,25 +54,18 @@ enum RealCachingStrategy {
     @SuppressWarnings("unused")
     THREAD_SAFE {
         @Override
-        <D> DependencyProvider<D> decorate(final DependencyProvider<D> provider) {
-            return new DependencyProvider<D>() {
+        boolean isInlined() {
+            return !SynapseMetrics.ENABLED;
+        }
 
-                volatile boolean init;
-                volatile D value;
+        @Override
+        boolean isDecorating() {
+            return SynapseMetrics.ENABLED;
+        }
 
-                @Override
-                public D get() throws Throwable {
-                    if (!init) {
-                        synchronized (this) {
-                            if (!init) {
-                                value = provider.get();
-                                init = true;
-                            }
-                        }
-                    }
-                    return value;
-                }
-            };
+        @Override
+        boolean isShared() {
+            return true;
         }
     },
 
@@ -92,27 +75,173 @@ enum RealCachingStrategy {
     @SuppressWarnings("unused")
     THREAD_LOCAL {
         @Override
-        <D> DependencyProvider<D> decorate(final DependencyProvider<D> provider) {
+        boolean isDecorating() {
+            return true;
+        }
+
+        @Override
+        <D> DependencyProvider<D> decorate(final MethodInfo info, final DependencyProvider<D> provider) {
             return new DependencyProvider<D>() {
 
-                final ThreadLocal<DependencyProvider<D>> results = new ThreadLocal<>();
+                // Holds the value itself rather than a wrapper, so that each thread costs only one thread local entry:
+                final ThreadLocal<Object> results = new ThreadLocal<>();
 
                 @Override
+                @SuppressWarnings("unchecked")
                 public D get() throws Throwable {
-                    DependencyProvider<D> result = results.get();
+                    Object result = results.get();
                     if (null == result) {
                         final D value = provider.get(); // must resolve now or else there is no caching at all!
-                        results.set(result = () -> value);
+                        results.set(null != value ? value : NULL);
+                        return value;
                     }
-                    return result.get();
+                    return NULL != result ? (D) result : null;
                 }
             };
         }
+    },
+
+    /**
+     * @see #valueOf(CachingStrategy)
+     */
+    @SuppressWarnings("unused")
+    EXPIRING {
+        @Override
+        boolean isDecorating() {
+            return true;
+        }
+
+        @Override
+        boolean isShared() {
+            return true;
+        }
+
+        @Override
+        <D> DependencyProvider<D> decorate(final MethodInfo info, final DependencyProvider<D> provider) {
+            return new ExpiringDependencyProvider<>(info, provider);
+        }
+    },
+
+    /**
+     * @see #valueOf(CachingStrategy)
+     */
+    @SuppressWarnings("unused")
+    SOFT {
+        @Override
+        boolean isDecorating() {
+            return true;
+        }
+
+        @Override
+        boolean isShared() {
+            return true;
+        }
+
+        @Override
+        <D> DependencyProvider<D> decorate(final MethodInfo info, final DependencyProvider<D> provider) {
+            return new ReferenceDependencyProvider<>(provider, SoftReference::new);
+        }
+    },
+
+    /**
+     * @see #valueOf(CachingStrategy)
+     */
+    @SuppressWarnings("unused")
+    WEAK {
+        @Override
+        boolean isDecorating() {
+            return true;
+        }
+
+        @Override
+        boolean isShared() {
+            return true;
+        }
+
+        @Override
+        <D> DependencyProvider<D> decorate(final MethodInfo info, final DependencyProvider<D> provider) {
+            return new ReferenceDependencyProvider<>(provider, WeakReference::new);
+        }
+    },
+
+    /**
+     * @see #valueOf(CachingStrategy)
+     */
+    @SuppressWarnings("unused")
+    SCOPED {
+        @Override
+        boolean isDecorating() {
+            return true;
+        }
+
+        @Override
+        <D> DependencyProvider<D> decorate(final MethodInfo info, final DependencyProvider<D> provider) {
+            return RealCachingScope.decorate(provider);
+        }
+    },
+
+    /**
+     * @see #valueOf(CachingStrategy)
+     */
+    @SuppressWarnings("unused")
+    ASYNC {
+        @Override
+        boolean isDecorating() {
+            return true;
+        }
+
+        @Override
+        boolean isShared() {
+            return true;
+        }
+
+        @Override
+        <D> DependencyProvider<D> decorate(final MethodInfo info, final DependencyProvider<D> provider) {
+            return new AsyncDependencyProvider<>(info, provider);
+        }
     };
 
+    /**
+     * Substitutes {@code null} values in thread locals because a {@code null} value means that there is no entry.
+     */
+    private static final Object NULL = new Object();
+
     static RealCachingStrategy valueOf(CachingStrategy strategy) {
         return valueOf(strategy.name());
     }
 
-    abstract <D> DependencyProvider<D> decorate(DependencyProvider<D> provider);
+    /**
+     * Returns {@code true} if the cache for this strategy is generated into the proxy class by
+     * {@link ProxyClassVisitor} rather than decorating the dependency provider.
+     * This saves an extra object per cached method and neuron and an extra interface call per cache hit.
+     * If {@linkplain SynapseMetrics#ENABLED recording metrics is enabled}, then no strategy is inlined and the
+     * dependency provider gets decorated by {@link SynapseMetrics} instead.
+     */
+    boolean isInlined() {
+        return false;
+    }
+
+    /**
+     * Returns {@code true} if this strategy {@linkplain #decorate(MethodInfo, DependencyProvider) decorates} the dependency
+     * provider, so that a non-abstract method needs a provider for calling its super method even if it's not bound.
+     */
+    boolean isDecorating() {
+        return false;
+    }
+
+    /**
+     * Returns {@code true} if the cached value is shared between threads and may be resolved on any thread, so that
+     * it can get warmed up in advance.
+     */
+    boolean isShared() {
+        return false;
+    }
+
+    /**
+     * Decorates the given dependency provider for the given method with a cache.
+     * If this strategy is {@linkplain #isInlined() inlined}, then the given dependency provider is returned as is.
+     */
+    <D> DependencyProvider<D> decorate(MethodInfo info, DependencyProvider<D> provider) {
+        return provider;
+    }
 }
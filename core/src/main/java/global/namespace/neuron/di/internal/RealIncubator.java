@@ -18,48 +18,259 @@ package global.namespace.neuron.di.internal;
 import global.namespace.neuron.di.java.BreedingException;
 
 import java.lang.reflect.InvocationTargetException;
-import java.util.Collections;
+import java.lang.reflect.Method;
+import java.time.Duration;
 import java.util.Map;
-import java.util.WeakHashMap;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.BiConsumer;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 public final class RealIncubator {
 
-    private static final Map<Class<?>, ProxyFactory<?>> factories = Collections.synchronizedMap(new WeakHashMap<>());
+    /**
+     * Holds the breeder for each runtime class.
+     * Unlike a map, a class value doesn't need any lock for looking up a computed value and its values don't prevent
+     * the runtime class from getting garbage collected.
+     */
+    private static final ClassValue<Function<MethodBinding, ?>> breeders = new ClassValue<Function<MethodBinding, ?>>() {
+
+        @Override
+        protected Function<MethodBinding, ?> computeValue(final Class<?> type) {
+            return newBreeder(type);
+        }
+    };
+
+    /**
+     * Holds the proxy factory for each neuron class.
+     * The holder is initially empty.
+     * Its lock serializes generating the proxy factory, see {@link #factory(NeuronElement)}.
+     */
+    private static final ClassValue<FactoryHolder> factories = new ClassValue<FactoryHolder>() {
+
+        @Override
+        protected FactoryHolder computeValue(final Class<?> type) {
+            return new FactoryHolder();
+        }
+    };
 
     private RealIncubator() {
     }
 
     public static <C> C breed(Class<C> clazz, MethodBinding binding) {
+        return breeder(clazz).apply(binding);
+    }
+
+    /**
+     * Returns a function which breeds instances of the given runtime class using the method binding provided to it.
+     * The function looks up the proxy factory for the given runtime class only once, so it's safe to share it and
+     * reuse it for breeding many instances.
+     */
+    @SuppressWarnings("unchecked")
+    public static <C> Function<MethodBinding, C> breeder(Class<C> clazz) {
+        return (Function<MethodBinding, C>) breeders.get(clazz);
+    }
+
+    private static <C> Function<MethodBinding, C> newBreeder(final Class<C> clazz) {
         return new Visitor<C>() {
 
-            C instance;
+            Function<MethodBinding, C> breeder;
 
             {
                 ClassElement.of(clazz).accept(this);
             }
 
-            @SuppressWarnings("unchecked")
             @Override
             public void visitNeuron(NeuronElement<C> element) {
                 assert clazz == element.clazz();
-                final ProxyFactory<C> factory = (ProxyFactory<C>) factories
-                        .computeIfAbsent(clazz, key -> new ProxyContext<>(element).factory());
-                instance = factory.apply(binding);
+                breeder = factory(element);
             }
 
             @Override
             public void visitClass(final ClassElement<C> element) {
                 assert clazz == element.clazz();
-                try {
-                    instance = clazz.getDeclaredConstructor().newInstance();
-                } catch (NoSuchMethodException e) {
-                    throw new BreedingException("Class must have a non-private constructor without parameters.", e);
-                } catch (InstantiationException e) {
-                    throw new AssertionError(e);
-                } catch (IllegalAccessException | InvocationTargetException e) {
-                    throw new BreedingException(e);
+                breeder = binding -> {
+                    try {
+                        return clazz.getDeclaredConstructor().newInstance();
+                    } catch (NoSuchMethodException e) {
+                        throw new BreedingException("Class must have a non-private constructor without parameters.", e);
+                    } catch (InstantiationException e) {
+                        throw new AssertionError(e);
+                    } catch (IllegalAccessException | InvocationTargetException e) {
+                        throw new BreedingException(e);
+                    }
+                };
+            }
+        }.breeder;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <C> ProxyFactory<C> factory(final NeuronElement<C> element) {
+        final FactoryHolder holder = factories.get(element.clazz());
+        ProxyFactory<?> factory = holder.factory;
+        if (null == factory) {
+            // Generate the proxy factory without holding any global lock, so that proxy factories for different
+            // classes can get generated in parallel.
+            // The lock of the holder serializes the generation of the proxy factory for the same class, which would
+            // otherwise try to define the same proxy class twice.
+            // This is a ReentrantLock rather than a monitor, so that a virtual thread which generates a proxy class
+            // doesn't pin its carrier thread:
+            holder.lock.lock();
+            try {
+                factory = holder.factory;
+                if (null == factory) {
+                    holder.factory = factory = new ProxyContext<>(element).factory();
                 }
+            } finally {
+                holder.lock.unlock();
+            }
+        }
+        return (ProxyFactory<C>) factory;
+    }
+
+    /**
+     * Generates the proxy factories for the given runtime classes and for the return types of their synapse methods,
+     * transitively, in parallel on the common fork-join pool.
+     * Runtime classes which are not neuron classes are ignored.
+     * The return types of synapse methods are only considered if they have the {@code @Neuron} annotation and are
+     * ignored if they cannot be proxied.
+     *
+     * @throws BreedingException if any of the given runtime classes is a neuron class which cannot be proxied.
+     */
+    public static void prepare(final Class<?>... classes) {
+        ForkJoinPool.commonPool().invoke(new Preparations(classes));
+    }
+
+    private static final class Preparations extends RecursiveAction {
+
+        private static final long serialVersionUID = 0L;
+
+        final Class<?>[] classes;
+
+        Preparations(final Class<?>[] classes) {
+            this.classes = classes;
+        }
+
+        @Override
+        protected void compute() {
+            final Set<Class<?>> visited = ConcurrentHashMap.newKeySet();
+            invokeAll(Stream
+                    .of(classes)
+                    .filter(visited::add)
+                    .map(clazz -> new Preparation<>(clazz, true, visited))
+                    .collect(Collectors.toList()));
+        }
+    }
+
+    private static final class Preparation<C> extends RecursiveAction {
+
+        private static final long serialVersionUID = 0L;
+
+        final Class<C> clazz;
+        final boolean required;
+        final Set<Class<?>> visited;
+
+        Preparation(final Class<C> clazz, final boolean required, final Set<Class<?>> visited) {
+            this.clazz = clazz;
+            this.required = required;
+            this.visited = visited;
+        }
+
+        @Override
+        protected void compute() {
+            final ClassElement<C> element = ClassElement.of(clazz);
+            if (required || element.hasNeuronAnnotation()) {
+                element.accept(new Visitor<C>() {
+
+                    @Override
+                    public void visitNeuron(final NeuronElement<C> element) {
+                        final ProxyFactory<C> factory;
+                        try {
+                            factory = factory(element);
+                        } catch (BreedingException e) {
+                            if (required) {
+                                throw e;
+                            }
+                            return;
+                        }
+                        invokeAll(factory
+                                .synapseTypes()
+                                .stream()
+                                .filter(visited::add)
+                                .map(type -> new Preparation<>(type, false, visited))
+                                .collect(Collectors.toList()));
+                    }
+                });
             }
-        }.instance;
+        }
+    }
+
+    /**
+     * Returns the proxy factory which generated the given proxy class, if any.
+     */
+    static Optional<ProxyFactory<?>> factoryOf(final Class<?> proxyClass) {
+        return Stream
+                .concat(Stream.of(proxyClass.getSuperclass()), Stream.of(proxyClass.getInterfaces()))
+                .filter(Objects::nonNull)
+                .<ProxyFactory<?>>map(clazz -> factories.get(clazz).factory)
+                .filter(factory -> null != factory && factory.proxyClass() == proxyClass)
+                .findFirst();
+    }
+
+    /**
+     * Calls the cached methods of the given neuron and of the neurons they return, transitively, in parallel on the
+     * given executor and returns the time it took to resolve the return value of each method.
+     * Only methods with a caching strategy which shares the cached value between threads get called.
+     * If the given object is not a neuron, then nothing happens and an empty map is returned.
+     *
+     * @throws BreedingException if calling any cached method fails.
+     */
+    public static Map<Method, Duration> warmUp(Object neuron, Executor executor) {
+        return new WarmUp(executor).apply(neuron);
+    }
+
+    /**
+     * Unregisters the synapse metrics of all neuron classes which have been loaded by the given class loader from the
+     * platform MBean server.
+     * Does nothing if recording metrics is disabled.
+     */
+    public static void unregisterMetrics(ClassLoader loader) {
+        if (SynapseMetrics.ENABLED) {
+            SynapseMetrics.unregister(loader);
+        }
+    }
+
+    /**
+     * Generates the proxy class for the given runtime class if it's a neuron class and passes its binary name and
+     * bytecode to the given consumer.
+     * If the generated class file gets added to the class path of the given runtime class, then it gets loaded instead
+     * of generating the proxy class again when breeding.
+     * Does nothing if the given runtime class is not a neuron class.
+     *
+     * @throws BreedingException if the given runtime class is a neuron class which cannot be proxied.
+     */
+    public static <C> void precompile(Class<C> clazz, BiConsumer<String, byte[]> consumer) {
+        ClassElement.of(clazz).accept(new Visitor<C>() {
+
+            @Override
+            public void visitNeuron(NeuronElement<C> element) {
+                new ProxyContext<>(element).precompile(consumer);
+            }
+        });
+    }
+
+    private static final class FactoryHolder {
+
+        final ReentrantLock lock = new ReentrantLock();
+
+        volatile ProxyFactory<?> factory;
     }
 }
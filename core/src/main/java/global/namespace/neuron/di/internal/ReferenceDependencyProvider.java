@@ -0,0 +1,80 @@
+/*
+ * Copyright © 2016 - 2021 Schlichtherle IT Services
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package global.namespace.neuron.di.internal;
+
+import global.namespace.neuron.di.java.CachingStrategy;
+import global.namespace.neuron.di.java.DependencyProvider;
+
+import java.lang.ref.Reference;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Function;
+
+/**
+ * Implements the {@link CachingStrategy#SOFT} and {@link CachingStrategy#WEAK} caching strategies.
+ * A cache hit costs one volatile read and no lock.
+ * A cache miss resolves the value while holding a lock, so that concurrent threads which miss at once resolve the value
+ * only once, just like the {@link CachingStrategy#THREAD_SAFE} caching strategy does.
+ * Like there, the lock is a {@link ReentrantLock} rather than a monitor, so that a virtual thread which resolves a
+ * large value doesn't pin its carrier thread.
+ */
+final class ReferenceDependencyProvider<D> implements DependencyProvider<D> {
+
+    /**
+     * Substitutes {@code null} values because a reference to {@code null} would be indistinguishable from a cleared
+     * reference.
+     */
+    private static final Object NULL = new Object();
+
+    private final DependencyProvider<D> provider;
+    private final Function<Object, Reference<Object>> references;
+    private final ReentrantLock lock = new ReentrantLock();
+
+    private volatile Reference<Object> reference;
+
+    ReferenceDependencyProvider(final DependencyProvider<D> provider,
+                                final Function<Object, Reference<Object>> references) {
+        this.provider = provider;
+        this.references = references;
+    }
+
+    @Override
+    public D get() throws Throwable {
+        Object value = referent();
+        if (null == value) {
+            lock.lock();
+            try {
+                if (null == (value = referent())) {
+                    final D dependency = provider.get();
+                    value = null != dependency ? dependency : NULL;
+                    reference = references.apply(value);
+                }
+            } finally {
+                lock.unlock();
+            }
+        }
+        return unmask(value);
+    }
+
+    private Object referent() {
+        final Reference<Object> r = reference;
+        return null != r ? r.get() : null;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <D> D unmask(Object value) {
+        return NULL != value ? (D) value : null;
+    }
+}
@@ -16,6 +16,7 @@
 package global.namespace.neuron.di.internal;
 
 import java.lang.annotation.Annotation;
+import java.lang.invoke.MethodHandle;
 import java.lang.reflect.AnnotatedElement;
 import java.lang.reflect.Method;
 import java.util.*;
@@ -28,7 +29,9 @@ import static org.objectweb.asm.Type.getMethodDescriptor;
 
 final class Reflection {
 
-    private static volatile DefineSubclass strategy = new DefineSubclassForJava9();
+    private static volatile DefineSubclass strategy = DefineSubclassForJava15.isAvailable()
+            ? new DefineSubclassForJava15()
+            : new DefineSubclassForJava9();
 
     static <C> Class<? extends C> defineSubclass(final Class<C> clazz, final String name, final byte[] b) {
         try {
@@ -38,33 +41,26 @@ final class Reflection {
         }
     }
 
-    static Class<?> boxed(Class<?> clazz) {
-        if (clazz.isPrimitive()) {
-            if (clazz == Boolean.TYPE) {
-                return Boolean.class;
-            } else if (clazz == Character.TYPE) {
-                return Character.class;
-            } else if (clazz == Byte.TYPE) {
-                return Byte.class;
-            } else if (clazz == Double.TYPE) {
-                return Double.class;
-            } else if (clazz == Float.TYPE) {
-                return Float.class;
-            } else if (clazz == Long.TYPE) {
-                return Long.class;
-            } else if (clazz == Integer.TYPE) {
-                return Integer.class;
-            } else if (clazz == Short.TYPE) {
-                return Short.class;
-            } else {
-                assert clazz == Void.TYPE;
-                return Void.class;
-            }
-        } else {
-            return clazz;
+    static boolean definesHiddenSubclass(final Class<?> clazz) {
+        try {
+            return strategy.definesHiddenClass(clazz);
+        } catch (NoSuchMethodError e) {
+            return false;
         }
     }
 
+    static boolean isHidden(final Class<?> clazz) {
+        return DefineSubclassForJava15.isAvailable() && DefineSubclassForJava15.isHidden(clazz);
+    }
+
+    /**
+     * Returns a method handle which calls the given method of the super class or interface of the given hidden proxy
+     * class.
+     */
+    static MethodHandle findSuper(final Class<?> proxyClass, final Method method) {
+        return DefineSubclassForJava15.findSuper(proxyClass, method);
+    }
+
     static Collection<Method> overridableMethods(final Class<?> clazz) {
         final Collection<Method> methods = overridableMethodsMap(clazz).values();
         // VOLATILE methods are bridge methods inserted by the compiler, e.g. when inheriting from a generic superclass
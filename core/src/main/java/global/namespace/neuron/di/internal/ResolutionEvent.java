@@ -0,0 +1,58 @@
+/*
+ * Copyright © 2016 - 2021 Schlichtherle IT Services
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package global.namespace.neuron.di.internal;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.EventType;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.Threshold;
+
+/**
+ * Records a slow resolution of the return value of a method by its dependency provider, see {@link Events}.
+ */
+@Name("global.namespace.neuron.di.Resolution")
+@Label("Slow Resolution")
+@Description("Resolves the return value of a method of a neuron by calling its dependency provider.")
+@Category("Neuron DI")
+@Threshold("10 ms")
+final class ResolutionEvent extends Event {
+
+    @Label("Method")
+    String method;
+
+    private static final EventType type = EventType.getEventType(ResolutionEvent.class);
+
+    static Object start() {
+        if (!type.isEnabled()) {
+            return null;
+        }
+        final ResolutionEvent event = new ResolutionEvent();
+        event.begin();
+        return event;
+    }
+
+    static void finish(final Object e, final String method) {
+        final ResolutionEvent event = (ResolutionEvent) e;
+        event.end();
+        if (event.shouldCommit()) {
+            event.method = method;
+            event.commit();
+        }
+    }
+}
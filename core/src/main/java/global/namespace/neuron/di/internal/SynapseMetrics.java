@@ -0,0 +1,340 @@
+/*
+ * Copyright © 2016 - 2021 Schlichtherle IT Services
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package global.namespace.neuron.di.internal;
+
+import global.namespace.neuron.di.java.BreedingException;
+import global.namespace.neuron.di.java.DependencyProvider;
+import global.namespace.neuron.di.java.SynapseMetricsMXBean;
+
+import javax.management.InstanceAlreadyExistsException;
+import javax.management.InstanceNotFoundException;
+import javax.management.JMException;
+import javax.management.MBeanRegistrationException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import java.lang.management.ManagementFactory;
+import java.lang.ref.WeakReference;
+import java.lang.reflect.Method;
+import java.util.Hashtable;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Records the runtime metrics of a method of a neuron class and publishes them as an MXBean.
+ * This is only used if {@link #ENABLED}.
+ * To avoid leaking the neuron class when registered with the platform MBean server, this class only holds names and a
+ * weak reference to the class loader of the neuron class.
+ * The object name includes the identity hash code of this class loader, so that the metrics of neuron classes with the
+ * same name in different class loaders can get registered at the same time.
+ */
+final class SynapseMetrics implements SynapseMetricsMXBean {
+
+    /**
+     * Whether or not recording metrics is enabled.
+     * This is a constant, so that the JIT can eliminate any code for recording metrics if it's not enabled.
+     */
+    static final boolean ENABLED = Boolean.getBoolean("global.namespace.neuron.di.metrics");
+
+    private static final String DOMAIN = "global.namespace.neuron.di";
+
+    private static final long[] BUCKET_LIMITS_NANOS =
+            {1_000L, 10_000L, 100_000L, 1_000_000L, 10_000_000L, 100_000_000L, 1_000_000_000L};
+
+    private static final ClassValue<Map<Method, SynapseMetrics>> metrics =
+            new ClassValue<Map<Method, SynapseMetrics>>() {
+
+                @Override
+                protected Map<Method, SynapseMetrics> computeValue(Class<?> neuronClass) {
+                    return new ConcurrentHashMap<>();
+                }
+            };
+
+    /**
+     * Holds the metrics which are registered with the platform MBean server, so that they can get unregistered.
+     */
+    private static final Set<SynapseMetrics> registered = ConcurrentHashMap.newKeySet();
+
+    private final String neuronClass, method, cachingStrategy;
+    private final WeakReference<ClassLoader> loader;
+    private final ObjectName objectName;
+
+    private final LongAdder calls = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder resolutions = new LongAdder();
+    private final LongAdder resolutionTime = new LongAdder();
+    private final LongAdder lockWaitTime = new LongAdder();
+    private final LongAdder[] histogram = new LongAdder[BUCKET_LIMITS_NANOS.length + 1];
+
+    private SynapseMetrics(final Class<?> neuronClass, final MethodElement<?> element) {
+        this.neuronClass = neuronClass.getName();
+        this.method = element.method().getName();
+        this.cachingStrategy = element.cachingStrategy().name();
+        this.loader = new WeakReference<>(neuronClass.getClassLoader());
+        this.objectName = objectName(neuronClass, method);
+        for (int i = 0; i < histogram.length; i++) {
+            histogram[i] = new LongAdder();
+        }
+    }
+
+    /**
+     * Returns the metrics for the given method element of the given neuron class.
+     * Upon the first call for a method, the metrics get registered with the platform MBean server.
+     */
+    static SynapseMetrics of(final Class<?> neuronClass, final MethodElement<?> element) {
+        final Map<Method, SynapseMetrics> map = metrics.get(neuronClass);
+        SynapseMetrics m = map.get(element.method());
+        if (null == m) {
+            m = map.computeIfAbsent(element.method(), method -> new SynapseMetrics(neuronClass, element).register());
+        }
+        return m;
+    }
+
+    private SynapseMetrics register() {
+        try {
+            ManagementFactory.getPlatformMBeanServer().registerMBean(this, objectName);
+            registered.add(this);
+        } catch (InstanceAlreadyExistsException ignored) {
+            // Another class loader with the same identity hash code has loaded a neuron class with the same name, so
+            // the metrics get recorded, but not published.
+        } catch (JMException e) {
+            throw new BreedingException("Cannot register the synapse metrics: " + objectName, e);
+        }
+        return this;
+    }
+
+    private static ObjectName objectName(final Class<?> neuronClass, final String method) {
+        final Hashtable<String, String> properties = new Hashtable<>();
+        properties.put("type", "Synapse");
+        properties.put("loader", Integer.toHexString(System.identityHashCode(neuronClass.getClassLoader())));
+        properties.put("neuron", neuronClass.getName());
+        properties.put("method", method);
+        try {
+            return new ObjectName(DOMAIN, properties);
+        } catch (JMException e) {
+            throw new BreedingException("Cannot name the synapse metrics for the method " + method
+                    + " of the neuron class " + neuronClass.getName(), e);
+        }
+    }
+
+    /**
+     * Unregisters the metrics of all neuron classes which have been loaded by the given class loader from the platform
+     * MBean server.
+     * The metrics of neuron classes whose class loader has already been garbage collected get unregistered, too.
+     */
+    static void unregister(final ClassLoader loader) {
+        final MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+        for (final SynapseMetrics m : registered) {
+            final ClassLoader l = m.loader.get();
+            if ((l == loader || null == l) && registered.remove(m)) {
+                try {
+                    server.unregisterMBean(m.objectName);
+                } catch (InstanceNotFoundException ignored) {
+                    // Someone else has already unregistered the metrics.
+                } catch (MBeanRegistrationException e) {
+                    throw new AssertionError(e);
+                }
+            }
+        }
+    }
+
+    /**
+     * Decorates the given dependency provider for the given method element with a cache according to its caching
+     * strategy and instruments it.
+     * If the caching strategy is usually {@linkplain RealCachingStrategy#isInlined() inlined}, then it's implemented
+     * here instead, so that calls and cache hits can be counted.
+     * The cache calls a {@link Resolver} upon each miss, so that misses get counted where they happen.
+     */
+    <D> DependencyProvider<D> decorate(final MethodElement<?> element, final DependencyProvider<D> provider) {
+        final RealCachingStrategy strategy = element.realCachingStrategy();
+        final DependencyProvider<D> cache;
+        switch (strategy) {
+            case NOT_THREAD_SAFE:
+                cache = notThreadSafe(new Resolver<>(Events.resolution(element.method(), provider)));
+                break;
+            case THREAD_SAFE:
+                cache = threadSafe(Events.name(element.method()),
+                        new Resolver<>(Events.resolution(element.method(), provider)));
+                break;
+            default:
+                // A decorating strategy gets the resolver as is, so that it can get a refresher from it, see
+                // `refresher`.
+                // Otherwise, the proxy class records the resolution events, see `ProxyClassVisitor`:
+                cache = strategy.isDecorating()
+                        ? strategy.decorate(element, new Resolver<>(Events.resolution(element.method(), provider)))
+                        : element.decorate(new Resolver<>(provider));
+        }
+        return () -> {
+            calls.increment();
+            return cache.get();
+        };
+    }
+
+    /**
+     * Returns the given dependency provider as is unless it's a {@link Resolver}, in which case a dependency provider
+     * gets returned which resolves the dependency without counting a miss.
+     * This is used by caching strategies which refresh the cached value independently of any call.
+     */
+    static <D> DependencyProvider<D> refresher(final DependencyProvider<D> provider) {
+        return provider instanceof Resolver ? ((Resolver<D>) provider).refresher() : provider;
+    }
+
+    private static <D> DependencyProvider<D> notThreadSafe(final DependencyProvider<D> provider) {
+        return new DependencyProvider<D>() {
+
+            boolean init;
+            D value;
+
+            @Override
+            public D get() throws Throwable {
+                if (!init) {
+                    value = provider.get();
+                    init = true;
+                }
+                return value;
+            }
+        };
+    }
+
+    private <D> DependencyProvider<D> threadSafe(final String method, final DependencyProvider<D> provider) {
+        return new DependencyProvider<D>() {
+
+            final ReentrantLock lock = new ReentrantLock();
+
+            volatile boolean init;
+            D value;
+
+            @Override
+            public D get() throws Throwable {
+                if (!init) {
+                    if (!lock.tryLock()) {
+                        final long start = System.nanoTime();
+                        Events.lock(lock, method);
+                        lockWaitTime.add(System.nanoTime() - start);
+                    }
+                    try {
+                        if (!init) {
+                            value = provider.get();
+                            init = true;
+                        }
+                    } finally {
+                        lock.unlock();
+                    }
+                }
+                return value;
+            }
+        };
+    }
+
+    /**
+     * Resolves the return value of the method upon a cache miss and records it.
+     */
+    private final class Resolver<D> implements DependencyProvider<D> {
+
+        final DependencyProvider<D> provider;
+
+        Resolver(final DependencyProvider<D> provider) {
+            this.provider = provider;
+        }
+
+        @Override
+        public D get() throws Throwable {
+            misses.increment();
+            return resolve();
+        }
+
+        DependencyProvider<D> refresher() {
+            return this::resolve;
+        }
+
+        D resolve() throws Throwable {
+            resolutions.increment();
+            final long start = System.nanoTime();
+            try {
+                return provider.get();
+            } finally {
+                record(System.nanoTime() - start);
+            }
+        }
+    }
+
+    private void record(final long nanos) {
+        resolutionTime.add(nanos);
+        int i = 0;
+        while (i < BUCKET_LIMITS_NANOS.length && nanos >= BUCKET_LIMITS_NANOS[i]) {
+            i++;
+        }
+        histogram[i].increment();
+    }
+
+    @Override
+    public String getNeuronClass() {
+        return neuronClass;
+    }
+
+    @Override
+    public String getMethod() {
+        return method;
+    }
+
+    @Override
+    public String getCachingStrategy() {
+        return cachingStrategy;
+    }
+
+    @Override
+    public long getCalls() {
+        return calls.sum();
+    }
+
+    @Override
+    public long getHits() {
+        // Each miss gets counted after its call, so reading the misses first ensures that the result isn't negative:
+        final long m = getMisses();
+        return getCalls() - m;
+    }
+
+    @Override
+    public long getMisses() {
+        return misses.sum();
+    }
+
+    @Override
+    public long getResolutions() {
+        return resolutions.sum();
+    }
+
+    @Override
+    public long getResolutionTimeNanos() {
+        return resolutionTime.sum();
+    }
+
+    @Override
+    public long[] getResolutionTimeHistogram() {
+        final long[] counts = new long[histogram.length];
+        for (int i = 0; i < counts.length; i++) {
+            counts[i] = histogram[i].sum();
+        }
+        return counts;
+    }
+
+    @Override
+    public long getLockWaitTimeNanos() {
+        return lockWaitTime.sum();
+    }
+}
@@ -0,0 +1,109 @@
+/*
+ * Copyright © 2016 - 2021 Schlichtherle IT Services
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package global.namespace.neuron.di.internal;
+
+import global.namespace.neuron.di.java.BreedingException;
+
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.time.Duration;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+
+import static java.util.concurrent.CompletableFuture.completedFuture;
+
+/**
+ * Warms up the caches of a neuron and the neurons it depends on by calling their cached methods concurrently.
+ * Each cached method gets called in its own task on the executor, and each neuron returned by a cached method gets
+ * warmed up in turn as soon as the method returns, so independent subtrees of the dependency graph get resolved in
+ * parallel.
+ * Dependencies which are shared by concurrently warmed up methods get resolved only once because their caching
+ * strategy is thread-safe.
+ */
+final class WarmUp {
+
+    private final Executor executor;
+    private final Set<Object> visited = Collections.synchronizedSet(Collections.newSetFromMap(new IdentityHashMap<>()));
+    private final Map<Method, Duration> timings = new ConcurrentHashMap<>();
+
+    WarmUp(final Executor executor) {
+        this.executor = executor;
+    }
+
+    Map<Method, Duration> apply(final Object neuron) {
+        try {
+            warmUp(neuron).join();
+        } catch (CompletionException e) {
+            final Throwable cause = e.getCause();
+            throw cause instanceof BreedingException ? (BreedingException) cause : new BreedingException(cause);
+        }
+        return Collections.unmodifiableMap(timings);
+    }
+
+    private CompletableFuture<Void> warmUp(final Object neuron) {
+        if (null == neuron || !visited.add(neuron)) {
+            return completedFuture(null);
+        }
+        return RealIncubator
+                .factoryOf(neuron.getClass())
+                .map(factory -> CompletableFuture.allOf(factory
+                        .sharedCachingMethods()
+                        .stream()
+                        .map(method -> warmUp(neuron, method))
+                        .toArray(CompletableFuture[]::new)))
+                .orElseGet(() -> completedFuture(null));
+    }
+
+    // The timing is the elapsed time of the call, so it includes the time spent waiting for the lock of the method if
+    // another thread concurrently resolves it.
+    // Each method has its own lock, so this doesn't include the time spent resolving unrelated methods.
+    // For a method which returns a completion stage, the timing includes the time until it completes:
+    private CompletableFuture<Void> warmUp(final Object neuron, final Method method) {
+        return CompletableFuture
+                .supplyAsync(() -> {
+                    final long start = System.nanoTime();
+                    final Object value = call(neuron, method);
+                    return value instanceof CompletionStage
+                            ? ((CompletionStage<?>) value).<Object>thenApply(v -> record(method, start, v))
+                            : completedFuture(record(method, start, value));
+                }, executor)
+                .thenCompose(stage -> stage)
+                .thenCompose(this::warmUp);
+    }
+
+    private Object record(final Method method, final long start, final Object value) {
+        timings.merge(method, Duration.ofNanos(System.nanoTime() - start), Duration::plus);
+        return value;
+    }
+
+    private static Object call(final Object neuron, final Method method) {
+        try {
+            method.setAccessible(true);
+            return method.invoke(neuron);
+        } catch (InvocationTargetException e) {
+            throw new BreedingException("Cannot warm up method: " + method, e.getCause());
+        } catch (IllegalAccessException | RuntimeException e) {
+            throw new BreedingException("Cannot warm up method: " + method, e);
+        }
+    }
+}
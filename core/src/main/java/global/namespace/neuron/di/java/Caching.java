@@ -19,6 +19,8 @@ import java.lang.annotation.Documented;
 import java.lang.annotation.Retention;
 import java.lang.annotation.RetentionPolicy;
 import java.lang.annotation.Target;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
 
 import static java.lang.annotation.ElementType.ANNOTATION_TYPE;
 import static java.lang.annotation.ElementType.METHOD;
@@ -56,4 +58,41 @@ public @interface Caching {
      * annotated method.
      */
     CachingStrategy value() default CachingStrategy.THREAD_SAFE;
+
+    /**
+     * Configures the time to live of the cached return value of the annotated method in the
+     * {@linkplain #timeUnit() time unit}.
+     * Once the time to live has elapsed, the cached return value is never returned again, even if refreshing it has
+     * failed.
+     * This is only used by the {@link CachingStrategy#EXPIRING} strategy.
+     */
+    long timeToLive() default 60;
+
+    /**
+     * Configures how long before the cached return value of the annotated method expires it should get refreshed, in
+     * the {@linkplain #timeUnit() time unit}.
+     * The default value {@code -1} selects a quarter of the {@linkplain #timeToLive() time to live}.
+     * A value of zero disables refreshing ahead, so that each call after the time to live has elapsed resolves a new
+     * value synchronously.
+     * This is only used by the {@link CachingStrategy#EXPIRING} strategy.
+     */
+    long refreshAhead() default -1;
+
+    /**
+     * Configures the time unit of the {@linkplain #timeToLive() time to live} and the
+     * {@linkplain #refreshAhead() refresh-ahead window}.
+     */
+    TimeUnit timeUnit() default TimeUnit.SECONDS;
+
+    /**
+     * Configures the class of the executor for refreshing the cached return value of the annotated method.
+     * The class needs to have a public constructor without parameters.
+     * Only one instance of the class gets created and shared by all methods which are configured with it.
+     * This instance is never shut down, so it should either use daemon threads or delegate to an executor whose
+     * lifecycle is managed by the application, e.g. one which is held in a static field.
+     * The default value {@code Executor.class} selects the
+     * {@linkplain java.util.concurrent.ForkJoinPool#commonPool() common fork-join pool}.
+     * This is only used by the {@link CachingStrategy#EXPIRING} strategy.
+     */
+    Class<? extends Executor> executor() default Executor.class;
 }
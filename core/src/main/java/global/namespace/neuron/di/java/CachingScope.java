@@ -0,0 +1,60 @@
+/*
+ * Copyright © 2016 - 2021 Schlichtherle IT Services
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package global.namespace.neuron.di.java;
+
+import global.namespace.neuron.di.internal.RealCachingScope;
+
+import java.util.concurrent.Callable;
+
+/**
+ * Executes tasks in a caching scope for synapse methods with the {@link CachingStrategy#SCOPED} caching strategy.
+ * A caching scope is bound to the current thread and lasts until the task returns or throws, so its cached values get
+ * released when the scope exits.
+ * For example, a server may execute each request in a caching scope on a virtual thread:
+ * <pre>{@code
+ *     CachingScope.run(() -> handle(request));
+ * }</pre>
+ * If the current thread is already executing a caching scope, then the task is executed in the same scope.
+ * A caching scope is not inherited by any threads started by the task.
+ */
+public final class CachingScope {
+
+    private CachingScope() {
+    }
+
+    /**
+     * Executes the given task in a caching scope.
+     */
+    public static void run(final Runnable task) {
+        try {
+            RealCachingScope.call(() -> {
+                task.run();
+                return null;
+            });
+        } catch (RuntimeException e) {
+            throw e;
+        } catch (Exception e) {
+            throw new AssertionError(e);
+        }
+    }
+
+    /**
+     * Executes the given task in a caching scope and returns its result.
+     */
+    public static <V> V call(final Callable<V> task) throws Exception {
+        return RealCachingScope.call(task);
+    }
+}
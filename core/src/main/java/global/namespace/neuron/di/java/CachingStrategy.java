@@ -52,6 +52,12 @@ public enum CachingStrategy {
      * it behaves like a factory.
      * Now if this strategy is applied instead and {@code n} threads each make {@code m} calls to this synapse method,
      * then exactly one instance is returned.
+     * <p>
+     * Once the return value is cached, calls to the synapse method cost one volatile read and acquire no lock.
+     * Until then, concurrent calls wait for a {@link java.util.concurrent.locks.ReentrantLock} rather than a monitor,
+     * so that resolving the return value doesn't pin a virtual thread to its carrier thread.
+     * Each synapse method has its own lock, so resolving the return value of one synapse method never blocks calls to
+     * another synapse method of the same neuron.
      */
     THREAD_SAFE,
 
@@ -63,7 +69,90 @@ public enum CachingStrategy {
      * Now if this strategy is applied instead and {@code n} threads each make {@code m} calls to this synapse method,
      * then exactly {@code n} different instances are returned.
      */
-    THREAD_LOCAL;
+    THREAD_LOCAL,
+
+    /**
+     * Caches the return value of the synapse method until it expires and refreshes it asynchronously.
+     * The {@linkplain Caching#timeToLive() time to live}, the {@linkplain Caching#refreshAhead() refresh-ahead window}
+     * and the {@linkplain Caching#executor() executor} for refreshing the return value can be configured using the
+     * {@link Caching} annotation.
+     * <p>
+     * Only the first call to the synapse method resolves its return value synchronously.
+     * Subsequent calls return the cached value without acquiring any lock.
+     * When the cached value is about to expire, the next call submits a task to the executor which resolves a new
+     * value and replaces the cached value with it.
+     * By default, this happens during the last quarter of the time to live.
+     * Meanwhile, all calls keep returning the current value until it expires, so that no caller has to wait for a
+     * refresh which completes in time.
+     * If resolving a new value fails, the current value is retained and the next call tries to refresh it again.
+     * However, an expired value is never returned:
+     * Once the time to live has elapsed without a successful refresh, the next call resolves a new value synchronously
+     * and throws any exception from the dependency provider to the caller.
+     * <p>
+     * Suppose a synapse method without a {@link Caching} annotation returns a different instance on each call, that is,
+     * it behaves like a factory.
+     * Now if this strategy is applied instead and {@code n} threads each make {@code m} calls to this synapse method
+     * within the time to live, then exactly one instance is returned.
+     */
+    EXPIRING,
+
+    /**
+     * Caches the return value of the synapse method using a {@link java.lang.ref.SoftReference} so that it's
+     * thread-safe.
+     * If the garbage collector clears the reference under memory pressure, then the next call resolves the return value
+     * again.
+     * This is useful for memory-heavy dependencies which can be recomputed, e.g. large lookup tables.
+     * <p>
+     * Suppose a synapse method without a {@link Caching} annotation returns a different instance on each call, that is,
+     * it behaves like a factory.
+     * Now if this strategy is applied instead and {@code n} threads each make {@code m} calls to this synapse method,
+     * then exactly one instance is returned as long as the garbage collector doesn't clear the reference to it.
+     */
+    SOFT,
+
+    /**
+     * Caches the return value of the synapse method using a {@link java.lang.ref.WeakReference} so that it's
+     * thread-safe.
+     * If the garbage collector clears the reference because the return value isn't strongly reachable anymore, then
+     * the next call resolves the return value again.
+     * <p>
+     * Suppose a synapse method without a {@link Caching} annotation returns a different instance on each call, that is,
+     * it behaves like a factory.
+     * Now if this strategy is applied instead and {@code n} threads each make {@code m} calls to this synapse method,
+     * then exactly one instance is returned as long as the garbage collector doesn't clear the reference to it.
+     */
+    WEAK,
+
+    /**
+     * Caches the return value of the synapse method in the {@link CachingScope} of the current thread.
+     * Unlike {@link #THREAD_LOCAL}, the cached value gets released when the caching scope exits, so the footprint of
+     * the cache is bounded by the number of threads which are currently executing a caching scope.
+     * This makes this strategy suitable for virtual threads, e.g. when executing each request in a caching scope on its
+     * own virtual thread.
+     * If the current thread is not executing a caching scope, then the return value is not cached at all.
+     * <p>
+     * Suppose a synapse method without a {@link Caching} annotation returns a different instance on each call, that is,
+     * it behaves like a factory.
+     * Now if this strategy is applied instead and {@code n} threads each make {@code m} calls to this synapse method
+     * within a caching scope, then exactly {@code n} different instances are returned.
+     */
+    SCOPED,
+
+    /**
+     * Caches the {@link java.util.concurrent.CompletionStage} returned by the synapse method so that it's thread-safe,
+     * even while it's still in flight.
+     * If the completion stage completes exceptionally, then it gets evicted from the cache, so that the next call
+     * resolves a new completion stage.
+     * This is meant for synapse methods which are bound using {@link Incubator.Bind#toAsync(DependencyProvider)} et al.
+     * It's an error to apply this strategy to a method with a return type which is not a subtype of
+     * {@code CompletionStage}, e.g. {@link java.util.concurrent.CompletableFuture}.
+     * <p>
+     * Suppose a synapse method without a {@link Caching} annotation returns a different completion stage on each call,
+     * that is, it behaves like a factory.
+     * Now if this strategy is applied instead and {@code n} threads each make {@code m} calls to this synapse method,
+     * then exactly one completion stage is returned as long as it doesn't complete exceptionally.
+     */
+    ASYNC;
 
     /**
      * Returns true iff the caching strategy is not {@link #DISABLED}.
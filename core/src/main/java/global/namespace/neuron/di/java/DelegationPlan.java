@@ -0,0 +1,109 @@
+/*
+ * Copyright © 2016 - 2021 Schlichtherle IT Services
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package global.namespace.neuron.di.java;
+
+import global.namespace.neuron.di.internal.DelegateProviders;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles.Lookup;
+import java.lang.reflect.Method;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+
+import static global.namespace.neuron.di.java.Reflection.member;
+import static global.namespace.neuron.di.java.Reflection.methodHandleFactory;
+
+/**
+ * Maps the synapse methods of a neuron class to the members of a delegate class with the names determined by a namer
+ * function.
+ * Each member is searched for at most once per plan, so that breeding a neuron only needs to bind the delegate object
+ * to a dependency provider for the member.
+ * If possible, the dependency provider accesses the member directly in bytecode, see {@link DelegateProviders}.
+ * Otherwise, it invokes a method handle for the member.
+ * Plans are cached per neuron class and delegate class, where only the plan for the most recently used namer
+ * function and lookup object is kept.
+ */
+final class DelegationPlan {
+
+    private static final ClassValue<ClassValue<DelegationPlan[]>> plans = new ClassValue<ClassValue<DelegationPlan[]>>() {
+
+        @Override
+        protected ClassValue<DelegationPlan[]> computeValue(Class<?> neuronClass) {
+            return new ClassValue<DelegationPlan[]>() {
+
+                @Override
+                protected DelegationPlan[] computeValue(Class<?> delegateClass) {
+                    return new DelegationPlan[1];
+                }
+            };
+        }
+    };
+
+    private final Class<?> delegateClass;
+    private final Function<Method, String> namer;
+    private final Lookup lookup;
+    private final Map<Method, Function<Object, DependencyProvider<?>>> factories = new ConcurrentHashMap<>();
+
+    private DelegationPlan(final Class<?> delegateClass, final Function<Method, String> namer, final Lookup lookup) {
+        this.delegateClass = delegateClass;
+        this.namer = namer;
+        this.lookup = lookup;
+    }
+
+    /**
+     * Returns the plan for delegating the synapse methods of the given neuron class to the members of the given
+     * delegate class with the names determined by the given namer function.
+     */
+    static DelegationPlan of(final Class<?> neuronClass,
+                             final Class<?> delegateClass,
+                             final Function<Method, String> namer,
+                             final Lookup lookup) {
+        final DelegationPlan[] holder = plans.get(neuronClass).get(delegateClass);
+        DelegationPlan plan = holder[0];
+        if (null == plan || plan.namer != namer || !plan.lookup.equals(lookup)) {
+            // A benign race: Concurrent threads may compute equivalent plans.
+            holder[0] = plan = new DelegationPlan(delegateClass, namer, lookup);
+        }
+        return plan;
+    }
+
+    /**
+     * Returns a dependency provider for the given synapse method which accesses the member of the given delegate
+     * object.
+     *
+     * @throws BreedingException if the member is not found in the delegate class or if the lookup object has no access
+     *                           to it.
+     */
+    DependencyProvider<?> provider(final Method synapse, final Object delegate) {
+        Function<Object, DependencyProvider<?>> factory = factories.get(synapse);
+        if (null == factory) {
+            factory = factories.computeIfAbsent(synapse, this::factory);
+        }
+        return factory.apply(delegate);
+    }
+
+    private Function<Object, DependencyProvider<?>> factory(final Method synapse) {
+        final String name = namer.apply(synapse);
+        return DelegateProviders.factory(synapse, member(name, delegateClass)).orElseGet(() -> {
+            final Reflection.MethodHandleFactory factory = methodHandleFactory(name, delegateClass, lookup);
+            return delegate -> {
+                final MethodHandle handle = factory.methodHandle(delegate);
+                return handle::invokeExact;
+            };
+        });
+    }
+}
@@ -15,23 +15,34 @@
  */
 package global.namespace.neuron.di.java;
 
+import global.namespace.neuron.di.internal.ConstantProvider;
 import global.namespace.neuron.di.internal.MethodBinding;
 import global.namespace.neuron.di.internal.MethodInfo;
 import global.namespace.neuron.di.internal.RealIncubator;
 
-import java.lang.invoke.MethodHandle;
 import java.lang.invoke.MethodHandles;
 import java.lang.reflect.Method;
+import java.time.Duration;
+import java.util.Collections;
+import java.util.IdentityHashMap;
 import java.util.LinkedHashMap;
 import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ForkJoinPool;
 import java.util.function.Function;
+import java.util.function.Predicate;
 
-import static global.namespace.neuron.di.java.Reflection.methodHandle;
 import static java.lang.invoke.MethodHandles.Lookup;
 import static java.lang.invoke.MethodHandles.publicLookup;
 import static java.util.Objects.requireNonNull;
-import static java.util.Optional.*;
+import static java.util.Optional.empty;
+import static java.util.Optional.of;
 
 /**
  * An incubator breeds neuron types.
@@ -73,6 +84,118 @@ public final class Incubator {
         return RealIncubator.breed(clazz, info -> info.isAbstract() ? of(binding.apply(info.method())) : empty());
     }
 
+    /**
+     * Warms up the caches of the given neuron in parallel on the {@linkplain ForkJoinPool#commonPool() common pool}.
+     *
+     * @see #warmUp(Object, Executor)
+     */
+    public static Map<Method, Duration> warmUp(Object neuron) {
+        return warmUp(neuron, ForkJoinPool.commonPool());
+    }
+
+    /**
+     * Warms up the caches of the given neuron in parallel on the given executor, so that the first calls to its cached
+     * methods don't need to resolve their return values anymore.
+     * This is typically called once when starting an application.
+     * <p>
+     * This method calls the cached methods of the given neuron and of any neuron returned by them, transitively.
+     * Each method gets called in a separate task, so independent dependencies get resolved concurrently.
+     * Only methods with the {@link CachingStrategy#THREAD_SAFE}, {@link CachingStrategy#EXPIRING},
+     * {@link CachingStrategy#SOFT}, {@link CachingStrategy#WEAK} or {@link CachingStrategy#ASYNC} caching strategy
+     * are called because the values cached by any other caching strategy are not shared between threads.
+     * If a method returns a {@link java.util.concurrent.CompletionStage}, then this method waits for its completion.
+     * If the given object is not a neuron, then nothing happens.
+     *
+     * @return the time it took to resolve the return value of each cached method.
+     *         This is the elapsed time of the call, so it includes any time spent waiting for another thread which
+     *         concurrently resolves the same method or a dependency of it.
+     *         If the same method got called on different neurons, the times are summed up.
+     * @throws BreedingException if calling any cached method fails.
+     */
+    public static Map<Method, Duration> warmUp(Object neuron, Executor executor) {
+        return RealIncubator.warmUp(requireNonNull(neuron), requireNonNull(executor));
+    }
+
+    /**
+     * Unregisters the {@linkplain SynapseMetricsMXBean synapse metrics} of all neuron classes which have been loaded by
+     * the given class loader from the platform MBean server.
+     * This should get called when discarding the class loader, e.g. when undeploying an application, because the
+     * MBean server would otherwise retain the metrics.
+     * The metrics of neuron classes whose class loader has already been garbage collected get unregistered, too.
+     * Neurons which get bred or called afterwards still record metrics, but these are no longer published.
+     * Does nothing if recording metrics is disabled.
+     */
+    public static void unregisterMetrics(ClassLoader loader) {
+        RealIncubator.unregisterMetrics(loader);
+    }
+
+    /**
+     * Returns a new scope which memoizes any instance bred in it.
+     * The returned scope is typically used as the singleton scope of an application.
+     *
+     * @see Scope
+     */
+    public static Scope scope() {
+        return scope(null, clazz -> true);
+    }
+
+    private static Scope scope(final Scope parent, final Predicate<? super Class<?>> filter) {
+        return new Scope() {
+
+            final ConcurrentMap<Class<?>, Object> instances = new ConcurrentHashMap<>();
+
+            @Override
+            @SuppressWarnings("unchecked")
+            public <T> T breed(final Class<T> clazz) {
+                if (null != parent && !filter.test(clazz)) {
+                    return parent.breed(clazz);
+                }
+                Object instance = instances.get(clazz);
+                if (null == instance) {
+                    // Breeding may recursively call this method, so it must not happen while holding a lock.
+                    // If some other thread wins the race, then its instance is shared and this one is discarded:
+                    final Object neuron = Incubator.breed(clazz, synapse -> {
+                        final Class<?> returnType = synapse.getReturnType();
+                        return () -> breed(returnType);
+                    });
+                    if (null == (instance = instances.putIfAbsent(clazz, neuron))) {
+                        instance = neuron;
+                    }
+                }
+                return (T) instance;
+            }
+
+            @Override
+            public Scope nest(final Predicate<? super Class<?>> filter) {
+                return scope(this, requireNonNull(filter));
+            }
+
+            @Override
+            public void close() {
+                instances.clear();
+            }
+        };
+    }
+
+    /**
+     * Generates the proxy classes for the given runtime classes and for the return types of their synapse methods,
+     * transitively, so that subsequent calls to {@link #breed(Class)} et al don't have to do this anymore.
+     * The proxy classes get generated in parallel on the {@linkplain java.util.concurrent.ForkJoinPool#commonPool()
+     * common fork-join pool}.
+     * This method should get called once when starting an application, so that the first request doesn't suffer from
+     * the latency of generating the proxy classes for a deep graph of neuron types one after another.
+     * <p>
+     * Given runtime classes which are not neuron classes or interfaces are ignored.
+     * The return types of synapse methods are only considered if they have the {@link Neuron} annotation.
+     * If any of these cannot be proxied, then it's ignored, too - an exception is thrown when breeding it instead.
+     *
+     * @throws BreedingException if any of the given runtime classes is a neuron class or interface which cannot be
+     *                           proxied.
+     */
+    public static void prepare(Class<?>... classes) {
+        RealIncubator.prepare(classes);
+    }
+
     /**
      * Starts breeding an instance of the given runtime class.
      * This is a generic substitute for the {@code new} statement for use with neuron types.
@@ -93,6 +216,12 @@ public final class Incubator {
 
             final Map<DependencyResolver<T, ?>, Object> bindings = new LinkedHashMap<>();
 
+            /**
+             * Holds the bindings which have been defined by a call to {@code toAsync}, so that the return type of
+             * their synapse methods can get checked once they are resolved.
+             */
+            final Set<Object> asyncBindings = Collections.newSetFromMap(new IdentityHashMap<>());
+
             boolean partial;
 
             @Override
@@ -111,11 +240,50 @@ public final class Incubator {
                         return wire();
                     }
 
+                    @Override
+                    public Wire<T> toInt(IntDependencyProvider provider) {
+                        bindings.put(methodReference, provider);
+                        return wire();
+                    }
+
+                    @Override
+                    public Wire<T> toLong(LongDependencyProvider provider) {
+                        bindings.put(methodReference, provider);
+                        return wire();
+                    }
+
+                    @Override
+                    public Wire<T> toDouble(DoubleDependencyProvider provider) {
+                        bindings.put(methodReference, provider);
+                        return wire();
+                    }
+
                     @Override
                     public Wire<T> to(DependencyResolver<? super T, ? extends U> resolver) {
                         bindings.put(methodReference, resolver);
                         return wire();
                     }
+
+                    @Override
+                    public Wire<T> toAsync(DependencyProvider<?> provider, Executor executor) {
+                        requireNonNull(provider);
+                        requireNonNull(executor);
+                        final DependencyProvider<?> binding = () -> supplyAsync(provider, executor);
+                        bindings.put(methodReference, binding);
+                        asyncBindings.add(binding);
+                        return wire();
+                    }
+
+                    @Override
+                    public Wire<T> toAsync(DependencyResolver<? super T, ?> resolver, Executor executor) {
+                        requireNonNull(resolver);
+                        requireNonNull(executor);
+                        final DependencyResolver<T, ?> binding =
+                                neuron -> supplyAsync(() -> resolver.apply(neuron), executor);
+                        bindings.put(methodReference, binding);
+                        asyncBindings.add(binding);
+                        return wire();
+                    }
                 };
             }
 
@@ -123,6 +291,48 @@ public final class Incubator {
                 return this;
             }
 
+            @Override
+            public Blueprint<T> compile() {
+                final Map<MethodInfo, Object> resolved = new Resolver<>(clazz).resolve(bindings);
+                resolved.forEach((info, binding) -> {
+                    if (asyncBindings.contains(binding) && !info.returnType().isAssignableFrom(CompletableFuture.class)) {
+                        throw new BreedingException("Illegal binding: The return type of a synapse method which is bound by a call to `toAsync` must be a supertype of `CompletableFuture`, e.g. `CompletionStage`: " + info.method());
+                    }
+                });
+                return blueprint(clazz, resolved, partial);
+            }
+
+            @Override
+            public T using(Object delegate, Function<Method, String> namer) {
+                partial = true;
+                return compile().using(delegate, namer);
+            }
+
+            @Override
+            public T breed() {
+                return compile().breed();
+            }
+        };
+    }
+
+    private static <D> CompletableFuture<D> supplyAsync(final DependencyProvider<D> provider,
+                                                        final Executor executor) {
+        return CompletableFuture.supplyAsync(() -> {
+            try {
+                return provider.get();
+            } catch (Throwable e) {
+                throw new CompletionException(e);
+            }
+        }, executor);
+    }
+
+    private static <T> Blueprint<T> blueprint(final Class<T> clazz,
+                                              final Map<MethodInfo, Object> bindings,
+                                              final boolean partial) {
+        return new Blueprint<T>() {
+
+            final Function<MethodBinding, T> breeder = RealIncubator.breeder(clazz);
+
             @Override
             public T using(Object delegate, Function<Method, String> namer) {
                 return using(requireNonNull(delegate), requireNonNull(namer), publicLookup);
@@ -130,7 +340,6 @@ public final class Incubator {
 
             @SuppressWarnings("SameParameterValue")
             private T using(final Object delegate, final Function<Method, String> namer, final Lookup lookup) {
-                partial = true;
                 return breed(delegate, namer, lookup);
             }
 
@@ -141,28 +350,27 @@ public final class Incubator {
 
             @SuppressWarnings("unchecked")
             private T breed(final Object delegate, final Function<Method, String> namer, final Lookup lookup) {
+                final DelegationPlan plan = null != delegate
+                        ? DelegationPlan.of(clazz, delegate.getClass(), namer, lookup)
+                        : null;
                 return new Object() {
 
-                    final T neuron = RealIncubator.breed(clazz, new MethodBinding() {
-
-                        final Map<MethodInfo, Object> resolvedBindings = new Resolver<>(clazz).resolve(bindings);
+                    final T neuron = breeder.apply(new MethodBinding() {
 
                         @Override
                         public Optional<DependencyProvider<?>> apply(final MethodInfo info) {
-                            final Optional<DependencyProvider<?>> odp = ofNullable(resolvedBindings.get(info))
-                                    .map(o -> (o instanceof DependencyProvider)
-                                            ? (DependencyProvider<?>) o
-                                            : () -> ((DependencyResolver<? super T, ?>) o).apply(neuron));
-                            if (odp.isPresent() || !info.isAbstract()) {
-                                return odp;
+                            final Object binding = bindings.get(info);
+                            if (binding instanceof DependencyProvider) {
+                                return of((DependencyProvider<?>) binding);
+                            } else if (null != binding) {
+                                return of(() -> ((DependencyResolver<? super T, ?>) binding).apply(neuron));
+                            } else if (!info.isAbstract()) {
+                                return empty();
+                            } else if (null != plan) {
+                                return of(plan.provider(info.method(), delegate));
                             } else if (!partial) {
                                 throw new BreedingException(
                                         "Partial binding is disabled and no binding is defined for synapse method: " + info.method());
-                            } else if (null != delegate) {
-                                assert null != namer;
-                                assert null != lookup;
-                                final MethodHandle handle = methodHandle(namer.apply(info.method()), delegate, lookup);
-                                return of(handle::invokeExact);
                             } else {
                                 return of(() -> Incubator.breed(info.returnType()));
                             }
@@ -229,6 +437,94 @@ public final class Incubator {
          * If the runtime class is not a neuron class or interface, this method simply calls the default constructor.
          */
         T breed();
+
+        /**
+         * Compiles the wired neuron into a blueprint.
+         * The bindings defined so far get resolved once and for all, so that the blueprint can breed any number of
+         * neurons without resolving them again.
+         * Subsequent changes to this wire statement have no effect on the returned blueprint.
+         */
+        Blueprint<T> compile();
+    }
+
+    /**
+     * A compiled wire statement.
+     * A blueprint is immutable, so it's safe to share it between threads and use it to breed any number of neurons.
+     * It's an error to implement this interface outside of the {@code Incubator} class!
+     *
+     * @param <T> the type of the neuron to breed.
+     */
+    public interface Blueprint<T> {
+
+        /**
+         * Breeds a neuron according to this blueprint.
+         * The neuron will forward any calls to unbound synapse methods to the given {@code delegate} object.
+         *
+         * @see Wire#using(Object)
+         */
+        default T using(Object delegate) {
+            return using(delegate, Method::getName);
+        }
+
+        /**
+         * Breeds a neuron according to this blueprint.
+         * The neuron will forward any calls to unbound synapse methods to the member of the given {@code delegate}
+         * object with the name determined by calling the given {@code namer} function.
+         *
+         * @see Wire#using(Object, Function)
+         */
+        T using(Object delegate, Function<Method, String> namer);
+
+        /**
+         * Breeds a neuron according to this blueprint.
+         * If the runtime class is not a neuron class or interface, this method simply calls the default constructor.
+         *
+         * @see Wire#breed()
+         */
+        T breed();
+    }
+
+    /**
+     * A scope memoizes the instances bred in it, so that they get shared within the scope.
+     * Any unbound synapse methods of a neuron bred in a scope resolve their dependencies by recursively breeding them
+     * in the same scope, so that a graph of neurons shares the instances of the same runtime class without having to
+     * annotate each synapse method with {@link Caching}.
+     * <p>
+     * A scope can be {@linkplain #nest nested} in another scope, e.g. in order to have a scope per request in a
+     * singleton scope.
+     * Looking up an instance in a scope doesn't acquire any lock, so it's safe and cheap to share a scope between
+     * threads.
+     * When the scope ends, {@linkplain #close() closing} it releases all its instances at once.
+     * It's an error to implement this interface outside of the {@code Incubator} class!
+     */
+    public interface Scope extends AutoCloseable {
+
+        /**
+         * Returns the instance of the given runtime class in this scope.
+         * Upon the first call for a runtime class, a new instance gets bred as if by calling
+         * {@link Incubator#breed(Class)}, except that any unbound synapse methods resolve their dependencies by calling
+         * this method.
+         * If concurrent threads breed the first instance of the same runtime class, then only one of them gets
+         * memoized and returned to all threads.
+         */
+        <T> T breed(Class<T> clazz);
+
+        /**
+         * Returns a new scope which is nested in this scope.
+         * The nested scope memoizes the instances of the runtime classes which match the given filter.
+         * The instances of any other runtime classes get bred in this scope.
+         * For example, given a singleton scope, {@code singleton.nest(clazz -> clazz == Request.class)} returns a new
+         * scope for a single request, where any other instances are shared with the singleton scope.
+         */
+        Scope nest(Predicate<? super Class<?>> filter);
+
+        /**
+         * Releases all instances memoized in this scope, so that subsequent calls to {@link #breed(Class)} breed new
+         * instances.
+         * This doesn't affect any nested scopes or the scope which this scope is nested in.
+         */
+        @Override
+        void close();
     }
 
     /**
@@ -242,9 +538,10 @@ public final class Incubator {
 
         /**
          * Binds the synapse method to the given value.
+         * The value is stored in the neuron, so that calling the synapse method simply returns it.
          */
         default Wire<T> to(U value) {
-            return to(() -> value);
+            return to(ConstantProvider.of(value));
         }
 
         /**
@@ -252,9 +549,72 @@ public final class Incubator {
          */
         Wire<T> to(DependencyProvider<? extends U> provider);
 
+        /**
+         * Binds the synapse method to the given provider of {@code int} values.
+         * If the synapse method has a primitive return type, then calling it does not box the value.
+         * Unlike {@link #to(DependencyProvider)}, this method does not require the type of the value to match the
+         * return type of the synapse method, so a lambda expression of type {@code int} can be bound to a synapse
+         * method which returns {@code long}, for example.
+         */
+        Wire<T> toInt(IntDependencyProvider provider);
+
+        /**
+         * Binds the synapse method to the given provider of {@code long} values.
+         * If the synapse method has a primitive return type, then calling it does not box the value.
+         */
+        Wire<T> toLong(LongDependencyProvider provider);
+
+        /**
+         * Binds the synapse method to the given provider of {@code double} values.
+         * If the synapse method has a primitive return type, then calling it does not box the value.
+         */
+        Wire<T> toDouble(DoubleDependencyProvider provider);
+
         /**
          * Binds the synapse method to the given function.
          */
         Wire<T> to(DependencyResolver<? super T, ? extends U> resolver);
+
+        /**
+         * Binds the synapse method to a {@link CompletableFuture} which gets completed with the value of the given
+         * provider in the {@linkplain ForkJoinPool#commonPool() common pool}.
+         *
+         * @see #toAsync(DependencyProvider, Executor)
+         */
+        default Wire<T> toAsync(DependencyProvider<?> provider) {
+            return toAsync(provider, ForkJoinPool.commonPool());
+        }
+
+        /**
+         * Binds the synapse method to a {@link CompletableFuture} which gets completed with the value of the given
+         * provider by the given executor.
+         * The return type of the synapse method must be a supertype of {@code CompletableFuture}, e.g.
+         * {@link java.util.concurrent.CompletionStage}, or else compiling the wire statement or breeding the neuron
+         * throws a {@link BreedingException}.
+         * Each call to the synapse method submits a new task to the executor unless its return value is cached, so
+         * consider using the {@link CachingStrategy#ASYNC} caching strategy.
+         * <p>
+         * Because calling the synapse method returns immediately, independent dependencies get resolved concurrently
+         * rather than one after another, e.g. by combining their futures in a non-abstract method of the neuron.
+         */
+        Wire<T> toAsync(DependencyProvider<?> provider, Executor executor);
+
+        /**
+         * Binds the synapse method to a {@link CompletableFuture} which gets completed with the value of the given
+         * function in the {@linkplain ForkJoinPool#commonPool() common pool}.
+         *
+         * @see #toAsync(DependencyResolver, Executor)
+         */
+        default Wire<T> toAsync(DependencyResolver<? super T, ?> resolver) {
+            return toAsync(resolver, ForkJoinPool.commonPool());
+        }
+
+        /**
+         * Binds the synapse method to a {@link CompletableFuture} which gets completed with the value of the given
+         * function by the given executor.
+         *
+         * @see #toAsync(DependencyProvider, Executor)
+         */
+        Wire<T> toAsync(DependencyResolver<? super T, ?> resolver, Executor executor);
     }
 }
@@ -0,0 +1,40 @@
+/*
+ * Copyright © 2016 - 2021 Schlichtherle IT Services
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package global.namespace.neuron.di.java;
+
+/**
+ * Provides some dependency of an object as a primitive {@code int} value.
+ * Binding a synapse method with an {@code int}, {@code short}, {@code char} or {@code byte} return type to this
+ * provider avoids boxing the dependency.
+ *
+ * @see java.util.function.IntSupplier
+ */
+@FunctionalInterface
+public interface IntDependencyProvider extends DependencyProvider<Integer> {
+
+    /**
+     * Returns the dependency of the object.
+     */
+    int getAsInt() throws Throwable;
+
+    /**
+     * Returns the boxed dependency of the object.
+     */
+    @Override
+    default Integer get() throws Throwable {
+        return getAsInt();
+    }
+}
@@ -53,10 +53,19 @@ class Reflection {
      *                           {@code lookup} has no access to it.
      */
     static MethodHandle methodHandle(final String member, final Object object, final Lookup lookup) {
-        final Class<?> clazz = object.getClass();
-        final MethodHandleMetaFactory mhmf = classIndex
-                .computeIfAbsent(clazz, c -> new ConcurrentHashMap<>())
-                .computeIfAbsent(member, m -> methodHandleMetaFactory(m, clazz));
+        return methodHandleFactory(member, object.getClass(), lookup).methodHandle(object);
+    }
+
+    /**
+     * Recursively searches for the named {@code member} in the given {@code clazz} and if found, returns a factory
+     * which binds a corresponding {@link MethodHandle} created using the the given {@code lookup} to any instance of
+     * the given {@code clazz}.
+     *
+     * @throws BreedingException if the named {@code member} is not found in the given {@code clazz} or if the given
+     *                           {@code lookup} has no access to it.
+     */
+    static MethodHandleFactory methodHandleFactory(final String member, final Class<?> clazz, final Lookup lookup) {
+        final MethodHandleMetaFactory mhmf = methodHandleMetaFactory(member, clazz);
 
         Map<MethodHandleMetaFactory, MethodHandleFactory> mhfs;
         if (lookup.equals(publicLookup)) {
@@ -79,10 +88,26 @@ class Reflection {
             mhfs = li.computeIfAbsent(lookup, l -> new ConcurrentHashMap<>());
         }
 
-        return mhfs.computeIfAbsent(mhmf, mf -> mf.methodHandleFactory(lookup)).methodHandle(object);
+        return mhfs.computeIfAbsent(mhmf, mf -> mf.methodHandleFactory(lookup));
     }
 
-    private static MethodHandleMetaFactory methodHandleMetaFactory(String member, Class<?> clazz) {
+    /**
+     * Recursively searches for the named {@code member} in the given {@code clazz} and if found, returns it.
+     * The returned member is either a {@link Method} without parameters or a {@link Field}.
+     *
+     * @throws BreedingException if the named {@code member} is not found in the given {@code clazz}.
+     */
+    static Member member(final String member, final Class<?> clazz) {
+        return methodHandleMetaFactory(member, clazz).member();
+    }
+
+    private static MethodHandleMetaFactory methodHandleMetaFactory(final String member, final Class<?> clazz) {
+        return classIndex
+                .computeIfAbsent(clazz, c -> new ConcurrentHashMap<>())
+                .computeIfAbsent(member, m -> findMethodHandleMetaFactory(m, clazz));
+    }
+
+    private static MethodHandleMetaFactory findMethodHandleMetaFactory(String member, Class<?> clazz) {
 
         class MethodHandleMetaFactoryFinder implements Function<Class<?>, Optional<MethodHandleMetaFactory>> {
 
@@ -131,17 +156,24 @@ class Reflection {
     private static <M extends AccessibleObject & Member>
     MethodHandleMetaFactory methodHandleMetaFactory(final M member, final Unreflect<M> unreflect) {
         member.setAccessible(true);
-        if (isStatic(member)) {
-            return lookup -> {
-                final MethodHandle mh = unreflect.methodHandle(member, lookup).asType(acceptsNothingAndReturnsObject);
-                return ignored -> mh;
-            };
-        } else {
-            return lookup -> {
-                final MethodHandle mh = unreflect.methodHandle(member, lookup).asType(acceptsObjectAndReturnsObject);
-                return mh::bindTo;
-            };
-        }
+        return new MethodHandleMetaFactory() {
+
+            @Override
+            public Member member() {
+                return member;
+            }
+
+            @Override
+            public MethodHandleFactory methodHandleFactory(final Lookup lookup) {
+                if (isStatic(member)) {
+                    final MethodHandle mh = unreflect.methodHandle(member, lookup).asType(acceptsNothingAndReturnsObject);
+                    return ignored -> mh;
+                } else {
+                    final MethodHandle mh = unreflect.methodHandle(member, lookup).asType(acceptsObjectAndReturnsObject);
+                    return mh::bindTo;
+                }
+            }
+        };
     }
 
     private static MethodHandle unreflectMethod(final Method method, final Lookup lookup) {
@@ -175,10 +207,12 @@ class Reflection {
 
     private interface MethodHandleMetaFactory {
 
+        Member member();
+
         MethodHandleFactory methodHandleFactory(Lookup lookup);
     }
 
-    private interface MethodHandleFactory {
+    interface MethodHandleFactory {
 
         MethodHandle methodHandle(Object object);
     }
@@ -18,13 +18,37 @@ package global.namespace.neuron.di.java;
 import global.namespace.neuron.di.internal.MethodInfo;
 import global.namespace.neuron.di.internal.RealIncubator;
 
+import java.lang.reflect.Modifier;
 import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
 
 import static java.util.Optional.of;
 
 class Resolver<T> {
 
-    private static final Map<Class<?>, Object> fuzes = Collections.synchronizedMap(new WeakHashMap<>());
+    private static final ClassValue<Object> fuzes = new ClassValue<Object>() {
+
+        @Override
+        protected Object computeValue(final Class<?> type) {
+            return RealIncubator.breed(type, Resolver::ignition);
+        }
+    };
+
+    /**
+     * Caches the synapse methods which are referenced by the instances of a method reference class, keyed by the
+     * neuron class.
+     * This saves calling the method reference on a fuze and catching the {@link IgnitionError} when wiring the same
+     * neuron class again.
+     * The value is {@code null} if the instances of the method reference class are not known to always reference the
+     * same synapse method.
+     */
+    private static final ClassValue<Map<Class<?>, MethodInfo>> resolutions = new ClassValue<Map<Class<?>, MethodInfo>>() {
+
+        @Override
+        protected Map<Class<?>, MethodInfo> computeValue(final Class<?> type) {
+            return isStateless(type) ? new ConcurrentHashMap<>() : null;
+        }
+    };
 
     private final Class<T> clazz;
 
@@ -39,20 +63,35 @@ class Resolver<T> {
             int count = 0;
 
             {
-                final T fuze = fuze();
                 for (Map.Entry<DependencyResolver<T, ?>, U> binding : bindings.entrySet()) {
                     count++;
-                    try {
-                        binding.getKey().apply(fuze);
-                        throw breedingException(null);
-                    } catch (IgnitionError e) {
-                        resolved.put(e.info(), binding.getValue());
-                    } catch (BreedingException e) {
-                        throw e;
-                    } catch (Throwable e) {
-                        throw breedingException(e);
+                    resolved.put(resolve(binding.getKey()), binding.getValue());
+                }
+            }
+
+            MethodInfo resolve(final DependencyResolver<T, ?> methodReference) {
+                final Map<Class<?>, MethodInfo> cache = resolutions.get(methodReference.getClass());
+                MethodInfo info = null != cache ? cache.get(clazz) : null;
+                if (null == info) {
+                    info = ignite(methodReference);
+                    if (null != cache) {
+                        cache.put(clazz, info);
                     }
                 }
+                return info;
+            }
+
+            MethodInfo ignite(final DependencyResolver<T, ?> methodReference) {
+                try {
+                    methodReference.apply(fuze());
+                    throw breedingException(null);
+                } catch (IgnitionError e) {
+                    return e.info();
+                } catch (BreedingException e) {
+                    throw e;
+                } catch (Throwable e) {
+                    throw breedingException(e);
+                }
             }
 
             BreedingException breedingException(Throwable cause) {
@@ -61,9 +100,19 @@ class Resolver<T> {
         }.resolved;
     }
 
+    /**
+     * Returns {@code true} if the given class is a synthetic class without instance fields, e.g. the class of a
+     * non-capturing lambda expression or method reference like {@code Foo::bar}.
+     */
+    private static boolean isStateless(final Class<?> type) {
+        return type.isSynthetic() && Arrays
+                .stream(type.getDeclaredFields())
+                .allMatch(field -> Modifier.isStatic(field.getModifiers()));
+    }
+
     @SuppressWarnings("unchecked")
     private T fuze() {
-        return (T) fuzes.computeIfAbsent(clazz, c -> RealIncubator.breed(c, Resolver::ignition));
+        return (T) fuzes.get(clazz);
     }
 
     private static Optional<DependencyProvider<?>> ignition(MethodInfo info) {
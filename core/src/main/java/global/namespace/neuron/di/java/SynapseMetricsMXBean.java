@@ -0,0 +1,92 @@
+/*
+ * Copyright © 2016 - 2021 Schlichtherle IT Services
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package global.namespace.neuron.di.java;
+
+/**
+ * Exposes the runtime metrics of a synapse method or caching method of a neuron class over JMX.
+ * <p>
+ * Recording metrics is disabled by default.
+ * To enable it, set the system property {@code global.namespace.neuron.di.metrics} to {@code true} before any neuron
+ * gets bred.
+ * Then, the dependency provider for each bound method and for each unbound non-abstract method with a caching strategy
+ * gets instrumented, except for methods which are bound to a constant value.
+ * The metrics for each method get registered with the platform MBean server using the object name
+ * {@code global.namespace.neuron.di:type=Synapse,loader=<class loader id>,neuron=<neuron class name>,method=<method name>},
+ * where the class loader id is the hexadecimal identity hash code of the class loader of the neuron class.
+ * When discarding a class loader, its metrics should get unregistered using
+ * {@link Incubator#unregisterMetrics(ClassLoader)}.
+ * <p>
+ * Instrumenting the dependency providers changes how the return values get cached: The {@link CachingStrategy#THREAD_SAFE}
+ * and {@link CachingStrategy#NOT_THREAD_SAFE} caching strategies are no longer inlined into the proxy class, so that
+ * calls and cache hits can be counted.
+ * If recording metrics is disabled, then this has no effect on the neurons at all.
+ */
+public interface SynapseMetricsMXBean {
+
+    /**
+     * Returns the name of the neuron class.
+     */
+    String getNeuronClass();
+
+    /**
+     * Returns the name of the method.
+     */
+    String getMethod();
+
+    /**
+     * Returns the caching strategy of the method.
+     */
+    String getCachingStrategy();
+
+    /**
+     * Returns the number of calls to the method.
+     */
+    long getCalls();
+
+    /**
+     * Returns the number of calls to the method which returned the cached value.
+     */
+    long getHits();
+
+    /**
+     * Returns the number of calls to the method which had to resolve the return value.
+     */
+    long getMisses();
+
+    /**
+     * Returns the number of times the dependency provider resolved the return value of the method, including any
+     * asynchronous refreshes.
+     */
+    long getResolutions();
+
+    /**
+     * Returns the total time it took to resolve the return value of the method in nanoseconds.
+     */
+    long getResolutionTimeNanos();
+
+    /**
+     * Returns a histogram of the times it took to resolve the return value of the method.
+     * The buckets count the resolutions which took less than 1 µs, 10 µs, 100 µs, 1 ms, 10 ms, 100 ms and 1 s and at
+     * least 1 s, in this order.
+     */
+    long[] getResolutionTimeHistogram();
+
+    /**
+     * Returns the total time which threads waited for the lock of the {@link CachingStrategy#THREAD_SAFE} caching
+     * strategy in nanoseconds.
+     */
+    long getLockWaitTimeNanos();
+}
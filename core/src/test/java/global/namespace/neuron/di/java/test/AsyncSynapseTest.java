@@ -0,0 +1,140 @@
+/*
+ * Copyright © 2016 - 2021 Schlichtherle IT Services
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package global.namespace.neuron.di.java.test;
+
+import global.namespace.neuron.di.java.BreedingException;
+import global.namespace.neuron.di.java.Caching;
+import global.namespace.neuron.di.java.Incubator;
+import global.namespace.neuron.di.java.Neuron;
+import org.junit.Test;
+
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static global.namespace.neuron.di.java.CachingStrategy.ASYNC;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+
+public class AsyncSynapseTest {
+
+    @Test
+    public void testIndependentDependenciesAreResolvedConcurrently() throws Exception {
+        final CountDownLatch latch = new CountDownLatch(2);
+        final ExecutorService executor = Executors.newFixedThreadPool(2);
+        try {
+            final Client client = Incubator
+                    .wire(Client.class)
+                    .bind(Client::connection).toAsync(() -> {
+                        latch.countDown();
+                        return latch.await(10, TimeUnit.SECONDS) ? "connection" : "timeout";
+                    }, executor)
+                    .bind(Client::schema).toAsync(neuron -> {
+                        latch.countDown();
+                        return latch.await(10, TimeUnit.SECONDS) ? "schema" : "timeout";
+                    }, executor)
+                    .breed();
+            assertThat(client.session().get(), is("connection/schema"));
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    public void testInFlightFutureIsCached() throws Exception {
+        final AtomicInteger calls = new AtomicInteger();
+        final CountDownLatch resolving = new CountDownLatch(1);
+        final Client client = Incubator
+                .wire(Client.class)
+                .bind(Client::connection).toAsync(() -> {
+                    calls.incrementAndGet();
+                    resolving.await(10, TimeUnit.SECONDS);
+                    return "connection";
+                })
+                .bind(Client::schema).toAsync(() -> "schema")
+                .breed();
+        final CompletionStage<String> connection = client.connection();
+        assertThat(client.connection(), is(sameInstance(connection)));
+        resolving.countDown();
+        assertThat(connection.toCompletableFuture().get(), is("connection"));
+        assertThat(client.connection(), is(sameInstance(connection)));
+        assertThat(calls.get(), is(1));
+    }
+
+    @Test
+    public void testFailedFutureIsEvicted() throws Exception {
+        final AtomicInteger calls = new AtomicInteger();
+        final Client client = Incubator
+                .wire(Client.class)
+                .bind(Client::connection).toAsync(() -> {
+                    if (1 == calls.incrementAndGet()) {
+                        throw new IllegalStateException();
+                    }
+                    return "connection";
+                }, Runnable::run)
+                .bind(Client::schema).toAsync(() -> "schema")
+                .breed();
+        final CompletionStage<String> failed = client.connection();
+        try {
+            failed.toCompletableFuture().get();
+            throw new AssertionError();
+        } catch (ExecutionException e) {
+            assertThat(e.getCause(), is(instanceOf(IllegalStateException.class)));
+        }
+        final CompletionStage<String> connection = client.connection();
+        assertThat(connection, is(not(sameInstance(failed))));
+        assertThat(connection.toCompletableFuture().get(), is("connection"));
+        assertThat(client.connection(), is(sameInstance(connection)));
+        assertThat(calls.get(), is(2));
+    }
+
+    @Test(expected = BreedingException.class)
+    public void testAsyncCachingRequiresCompletionStage() {
+        Incubator.wire(Blocking.class).bind(Blocking::connection).to("connection").breed();
+    }
+
+    @Test(expected = BreedingException.class)
+    public void testAsyncBindingRequiresSupertypeOfCompletableFuture() {
+        Incubator.wire(Synchronous.class).bind(Synchronous::connection).toAsync(() -> "connection").compile();
+    }
+
+    @Neuron
+    public interface Client {
+
+        @Caching(ASYNC)
+        CompletionStage<String> connection();
+
+        @Caching(ASYNC)
+        CompletableFuture<String> schema();
+
+        default CompletableFuture<String> session() {
+            return connection().thenCombine(schema(), (connection, schema) -> connection + "/" + schema)
+                    .toCompletableFuture();
+        }
+    }
+
+    @Neuron
+    public interface Blocking {
+
+        @Caching(ASYNC)
+        String connection();
+    }
+
+    @Neuron
+    public interface Synchronous {
+
+        String connection();
+    }
+}
@@ -0,0 +1,104 @@
+/*
+ * Copyright © 2016 - 2021 Schlichtherle IT Services
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package global.namespace.neuron.di.java.test;
+
+import global.namespace.neuron.di.java.BreedingException;
+import global.namespace.neuron.di.java.DependencyResolver;
+import global.namespace.neuron.di.java.Incubator;
+import global.namespace.neuron.di.java.sample.Formatter;
+import global.namespace.neuron.di.java.sample.RealFormatter;
+import global.namespace.neuron.di.java.sample.RealGreeting;
+import org.junit.Test;
+
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+
+public class BlueprintTest {
+
+    @Test
+    public void testBreed() {
+        final Incubator.Blueprint<RealFormatter> blueprint = Incubator
+                .wire(RealFormatter.class)
+                .bind(RealFormatter::getFormat).to("Hello %s!")
+                .compile();
+        final Formatter formatter1 = blueprint.breed();
+        final Formatter formatter2 = blueprint.breed();
+        assertThat(formatter1, is(not(sameInstance(formatter2))));
+        assertThat(formatter1.format("world"), is("Hello world!"));
+        assertThat(formatter2.format("world"), is("Hello world!"));
+    }
+
+    @Test
+    public void testBreedWithResolver() {
+        final DependencyResolver<RealGreeting, Formatter> resolver = greeting -> Incubator
+                .wire(RealFormatter.class)
+                .bind(RealFormatter::getFormat).to("Hello %s!")
+                .breed();
+        final Incubator.Blueprint<RealGreeting> blueprint = Incubator
+                .wire(RealGreeting.class)
+                .bind(RealGreeting::formatter).to(resolver)
+                .compile();
+        final RealGreeting greeting = blueprint.breed();
+        assertThat(greeting.message("world"), is("Hello world!"));
+        assertThat(greeting.formatter(), is(not(sameInstance(greeting.formatter()))));
+    }
+
+    @Test
+    public void testBreedConcurrently() {
+        final Incubator.Blueprint<RealFormatter> blueprint = Incubator
+                .wire(RealFormatter.class)
+                .bind(RealFormatter::getFormat).to("Hello %s!")
+                .compile();
+        final List<String> messages = IntStream
+                .range(0, 1000)
+                .parallel()
+                .mapToObj(i -> blueprint.breed().format(i))
+                .collect(Collectors.toList());
+        for (int i = 0; i < messages.size(); i++) {
+            assertThat(messages.get(i), is("Hello " + i + "!"));
+        }
+    }
+
+    @Test
+    public void testUsing() {
+        final Incubator.Blueprint<RealFormatter> blueprint = Incubator.wire(RealFormatter.class).compile();
+        assertThat(blueprint.using(new Object() {
+
+            @SuppressWarnings("unused")
+            final String getFormat = "Hello %s!";
+        }).format("world"), is("Hello world!"));
+    }
+
+    @Test
+    public void testIsolation() {
+        final Incubator.Wire<RealFormatter> wire = Incubator
+                .wire(RealFormatter.class)
+                .bind(RealFormatter::getFormat).to("Hello %s!");
+        final Incubator.Blueprint<RealFormatter> blueprint = wire.compile();
+        wire.bind(RealFormatter::getFormat).to("Goodbye %s!");
+        assertThat(blueprint.breed().format("world"), is("Hello world!"));
+        assertThat(wire.breed().format("world"), is("Goodbye world!"));
+    }
+
+    @Test(expected = BreedingException.class)
+    public void testPartialBindingIsDisabled() {
+        Incubator.wire(RealFormatter.class).compile().breed();
+    }
+}
@@ -0,0 +1,65 @@
+/*
+ * Copyright © 2016 - 2021 Schlichtherle IT Services
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package global.namespace.neuron.di.java.test;
+
+import global.namespace.neuron.di.java.Incubator;
+import global.namespace.neuron.di.java.Neuron;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.*;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+
+public class ConcurrentBreedingTest {
+
+    private static final int THREADS = 16;
+
+    @Test
+    public void testConcurrentBreedingOfTheSameNeuronType() throws Exception {
+        final ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        try {
+            final CyclicBarrier barrier = new CyclicBarrier(THREADS);
+            final List<Future<Clock>> futures = new ArrayList<>(THREADS);
+            for (int i = 0; i < THREADS; i++) {
+                futures.add(executor.submit(() -> {
+                    barrier.await();
+                    return Incubator.wire(Clock.class).bind(Clock::now).to(() -> 42L).breed();
+                }));
+            }
+            Class<?> proxyClass = null;
+            for (final Future<Clock> future : futures) {
+                final Clock clock = future.get();
+                assertThat(clock.now(), is(42L));
+                if (null == proxyClass) {
+                    proxyClass = clock.getClass();
+                } else {
+                    assertThat(clock.getClass(), is(sameInstance(proxyClass)));
+                }
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Neuron
+    public interface Clock {
+
+        long now();
+    }
+}
@@ -0,0 +1,96 @@
+/*
+ * Copyright © 2016 - 2021 Schlichtherle IT Services
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package global.namespace.neuron.di.java.test;
+
+import global.namespace.neuron.di.java.Caching;
+import global.namespace.neuron.di.java.Incubator;
+import global.namespace.neuron.di.java.Neuron;
+import org.junit.Test;
+
+import static global.namespace.neuron.di.java.CachingStrategy.THREAD_LOCAL;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+
+public class ConstantBindingTest {
+
+    @Test
+    public void testConstants() {
+        final Config config = Incubator
+                .wire(Config.class)
+                .bind(Config::host).to("localhost")
+                .bind(Config::port).to(8080)
+                .bind(Config::debug).to(true)
+                .breed();
+        assertThat(config.host(), is("localhost"));
+        assertThat(config.port(), is(8080));
+        assertThat(config.debug(), is(true));
+        assertThat(config.url(), is("http://localhost:8080"));
+    }
+
+    @Test
+    public void testNull() {
+        final Config config = Incubator
+                .wire(Config.class)
+                .partial(true)
+                .bind(Config::host).to((String) null)
+                .breed();
+        assertThat(config.host(), is(nullValue()));
+    }
+
+    @Test(expected = NullPointerException.class)
+    public void testNullForPrimitive() {
+        Incubator
+                .wire(Config.class)
+                .partial(true)
+                .bind(Config::port).to((Integer) null)
+                .breed()
+                .port();
+    }
+
+    @SuppressWarnings({"rawtypes", "unchecked"})
+    @Test(expected = ClassCastException.class)
+    public void testTypeMismatch() {
+        final Incubator.Wire<Config> wire = Incubator.wire(Config.class).partial(true);
+        ((Incubator.Bind) wire.bind(Config::port)).to((Object) "8080");
+        wire.breed().port();
+    }
+
+    @Test
+    public void testConstantOverridesCachingStrategy() {
+        final Config config = Incubator
+                .wire(Config.class)
+                .partial(true)
+                .bind(Config::url).to("http://example.com")
+                .breed();
+        assertThat(config.url(), is("http://example.com"));
+        assertThat(config.url(), is(sameInstance(config.url())));
+    }
+
+    @Neuron
+    public interface Config {
+
+        String host();
+
+        int port();
+
+        boolean debug();
+
+        @Caching(THREAD_LOCAL)
+        default String url() {
+            return "http://" + host() + ":" + port();
+        }
+    }
+}
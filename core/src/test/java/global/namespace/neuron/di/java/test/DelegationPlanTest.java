@@ -0,0 +1,118 @@
+/*
+ * Copyright © 2016 - 2021 Schlichtherle IT Services
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package global.namespace.neuron.di.java.test;
+
+import global.namespace.neuron.di.java.BreedingException;
+import global.namespace.neuron.di.java.Incubator;
+import global.namespace.neuron.di.java.Neuron;
+import org.junit.Test;
+
+import java.lang.reflect.Method;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+
+public class DelegationPlanTest {
+
+    @Test
+    public void testMembersAreSearchedForOnlyOncePerNamer() {
+        final AtomicInteger calls = new AtomicInteger();
+        final Function<Method, String> namer = method -> {
+            calls.incrementAndGet();
+            return method.getName();
+        };
+        for (int i = 0; i < 3; i++) {
+            final Config config = Incubator.wire(Config.class).using(new ConfigValues("host" + i, i), namer);
+            assertThat(config.host(), is("host" + i));
+            assertThat(config.port(), is(i));
+        }
+        assertThat(calls.get(), is(2));
+    }
+
+    @Test
+    public void testDifferentNamers() {
+        final ConfigValues values = new ConfigValues("localhost", 8080);
+        final Config config1 = Incubator.wire(Config.class).using(values);
+        assertThat(config1.host(), is("localhost"));
+        assertThat(config1.port(), is(8080));
+        final Config config2 = Incubator.wire(Config.class).using(values, method -> "default" + method.getName());
+        assertThat(config2.host(), is("example.com"));
+        assertThat(config2.port(), is(80));
+    }
+
+    @Test
+    public void testDifferentDelegateClasses() {
+        final Incubator.Blueprint<Config> blueprint = Incubator.wire(Config.class).compile();
+        final Config config1 = blueprint.using(new ConfigValues("localhost", 8080));
+        final Config config2 = blueprint.using(new Object() {
+
+            @SuppressWarnings("unused")
+            String host() { return "example.com"; }
+
+            @SuppressWarnings("unused")
+            final int port = 80;
+        });
+        assertThat(config1.host(), is("localhost"));
+        assertThat(config1.port(), is(8080));
+        assertThat(config2.host(), is("example.com"));
+        assertThat(config2.port(), is(80));
+    }
+
+    @Test
+    public void testBoundSynapseMethodsAreNotDelegated() {
+        final Config config = Incubator
+                .wire(Config.class)
+                .bind(Config::port).to(443)
+                .using(new Object() {
+
+                    @SuppressWarnings("unused")
+                    final String host = "example.com";
+                });
+        assertThat(config.host(), is("example.com"));
+        assertThat(config.port(), is(443));
+    }
+
+    @Test(expected = BreedingException.class)
+    public void testMissingMember() {
+        Incubator.wire(Config.class).using(new Object());
+    }
+
+    @Neuron
+    public interface Config {
+
+        String host();
+
+        int port();
+    }
+
+    @SuppressWarnings("unused")
+    static final class ConfigValues {
+
+        static final String defaulthost = "example.com";
+
+        final String host;
+        final int port;
+
+        ConfigValues(final String host, final int port) {
+            this.host = host;
+            this.port = port;
+        }
+
+        static int defaultport() { return 80; }
+    }
+}
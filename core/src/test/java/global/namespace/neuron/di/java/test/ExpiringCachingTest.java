@@ -0,0 +1,198 @@
+/*
+ * Copyright © 2016 - 2021 Schlichtherle IT Services
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package global.namespace.neuron.di.java.test;
+
+import global.namespace.neuron.di.java.Caching;
+import global.namespace.neuron.di.java.Incubator;
+import global.namespace.neuron.di.java.Neuron;
+import org.junit.Test;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static global.namespace.neuron.di.java.CachingStrategy.EXPIRING;
+import static java.util.concurrent.TimeUnit.HOURS;
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+
+public class ExpiringCachingTest {
+
+    @Test
+    public void testCachingWithinTimeToLive() {
+        final AtomicInteger counter = new AtomicInteger();
+        final Credentials credentials = Incubator
+                .wire(Credentials.class)
+                .partial(true)
+                .bind(Credentials::token).to(counter::incrementAndGet)
+                .breed();
+        assertThat(credentials.token(), is(1));
+        assertThat(credentials.token(), is(1));
+        assertThat(counter.get(), is(1));
+    }
+
+    @Test
+    public void testRefreshingWithoutBlocking() {
+        final AtomicInteger counter = new AtomicInteger();
+        final Credentials credentials = Incubator
+                .wire(Credentials.class)
+                .partial(true)
+                .bind(Credentials::staleToken).to(counter::incrementAndGet)
+                .breed();
+        assertThat(credentials.staleToken(), is(1));
+        // The refresh is triggered by this call, but it still returns the current value:
+        assertThat(credentials.staleToken(), is(1));
+        assertThat(credentials.staleToken(), is(2));
+        assertThat(counter.get(), is(3));
+    }
+
+    @Test
+    public void testRefreshingAheadByDefault() throws Exception {
+        final AtomicInteger counter = new AtomicInteger();
+        final CountDownLatch refreshing = new CountDownLatch(1);
+        final CountDownLatch refreshed = new CountDownLatch(1);
+        final Credentials credentials = Incubator
+                .wire(Credentials.class)
+                .partial(true)
+                .bind(Credentials::defaultToken).to(() -> {
+                    final int value = counter.incrementAndGet();
+                    if (1 < value) {
+                        refreshing.countDown();
+                        refreshed.await(10, TimeUnit.SECONDS);
+                    }
+                    return value;
+                })
+                .breed();
+        assertThat(credentials.defaultToken(), is(1));
+        // Enter the refresh-ahead window, which is the last quarter of the time to live:
+        Thread.sleep(800);
+        final long start = System.nanoTime();
+        assertThat(credentials.defaultToken(), is(1));
+        assertThat(refreshing.await(10, TimeUnit.SECONDS), is(true));
+        assertThat(credentials.defaultToken(), is(1));
+        assertThat(System.nanoTime() - start, is(lessThan(TimeUnit.MILLISECONDS.toNanos(200))));
+        refreshed.countDown();
+        final long deadline = System.currentTimeMillis() + 10_000;
+        while (1 == credentials.defaultToken() && System.currentTimeMillis() < deadline) {
+            Thread.sleep(1);
+        }
+        assertThat(credentials.defaultToken(), is(2));
+    }
+
+    @Test
+    public void testRetainingValueIfRefreshFails() {
+        final AtomicInteger counter = new AtomicInteger();
+        final Credentials credentials = Incubator
+                .wire(Credentials.class)
+                .partial(true)
+                .bind(Credentials::staleToken).to(() -> {
+                    if (1 < counter.incrementAndGet()) {
+                        throw new IllegalStateException();
+                    }
+                    return 1;
+                })
+                .breed();
+        assertThat(credentials.staleToken(), is(1));
+        assertThat(credentials.staleToken(), is(1));
+        assertThat(credentials.staleToken(), is(1));
+    }
+
+    @Test
+    public void testResolvingSynchronouslyIfExpired() {
+        final AtomicInteger counter = new AtomicInteger();
+        final Credentials credentials = Incubator
+                .wire(Credentials.class)
+                .partial(true)
+                .bind(Credentials::expiredToken).to(counter::incrementAndGet)
+                .breed();
+        assertThat(credentials.expiredToken(), is(1));
+        assertThat(credentials.expiredToken(), is(2));
+        assertThat(credentials.expiredToken(), is(3));
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void testThrowingIfExpiredAndResolvingFails() {
+        final AtomicInteger counter = new AtomicInteger();
+        final Credentials credentials = Incubator
+                .wire(Credentials.class)
+                .partial(true)
+                .bind(Credentials::expiredToken).to(() -> {
+                    if (1 < counter.incrementAndGet()) {
+                        throw new IllegalStateException();
+                    }
+                    return 1;
+                })
+                .breed();
+        assertThat(credentials.expiredToken(), is(1));
+        credentials.expiredToken();
+    }
+
+    @Test
+    public void testRefreshingAsynchronously() throws InterruptedException {
+        final AtomicInteger counter = new AtomicInteger();
+        final Credentials credentials = Incubator
+                .wire(Credentials.class)
+                .partial(true)
+                .bind(Credentials::shortLivedToken).to(counter::incrementAndGet)
+                .breed();
+        assertThat(credentials.shortLivedToken(), is(1));
+        final long deadline = System.currentTimeMillis() + 10_000;
+        while (1 == credentials.shortLivedToken() && System.currentTimeMillis() < deadline) {
+            Thread.sleep(1);
+        }
+        assertThat(credentials.shortLivedToken(), is(greaterThan(1)));
+    }
+
+    @Test
+    public void testCachingNonAbstractMethod() {
+        final Credentials credentials = Incubator.breed(Credentials.class);
+        assertThat(credentials.user(), is(sameInstance(credentials.user())));
+    }
+
+    @Neuron
+    public interface Credentials {
+
+        @Caching(value = EXPIRING, timeToLive = 1, timeUnit = HOURS)
+        int token();
+
+        @Caching(value = EXPIRING, timeToLive = 1, refreshAhead = 1, timeUnit = HOURS, executor = DirectExecutor.class)
+        int staleToken();
+
+        @Caching(value = EXPIRING, timeToLive = 1000, timeUnit = MILLISECONDS)
+        int defaultToken();
+
+        @Caching(value = EXPIRING, timeToLive = 0, executor = DirectExecutor.class)
+        int expiredToken();
+
+        @Caching(value = EXPIRING, timeToLive = 10, refreshAhead = 5, timeUnit = MILLISECONDS)
+        int shortLivedToken();
+
+        @Caching(EXPIRING)
+        default String user() {
+            return new String("user");
+        }
+    }
+
+    public static final class DirectExecutor implements Executor {
+
+        @Override
+        public void execute(Runnable command) {
+            command.run();
+        }
+    }
+}
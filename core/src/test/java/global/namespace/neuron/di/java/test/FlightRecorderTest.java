@@ -0,0 +1,160 @@
+/*
+ * Copyright © 2016 - 2021 Schlichtherle IT Services
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package global.namespace.neuron.di.java.test;
+
+import global.namespace.neuron.di.java.Caching;
+import global.namespace.neuron.di.java.CachingStrategy;
+import global.namespace.neuron.di.java.Incubator;
+import global.namespace.neuron.di.java.Neuron;
+import jdk.jfr.FlightRecorder;
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+import org.junit.Test;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.*;
+import java.util.stream.Collectors;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+import static org.junit.Assume.assumeTrue;
+
+public class FlightRecorderTest {
+
+    private static final String[] EVENTS = {
+            "global.namespace.neuron.di.ProxyClass",
+            "global.namespace.neuron.di.Breed",
+            "global.namespace.neuron.di.Resolution",
+            "global.namespace.neuron.di.LockContention",
+    };
+
+    @Test
+    public void testEvents() throws Exception {
+        assumeTrue(FlightRecorder.isAvailable());
+        final Path file = Files.createTempFile("neuron-di", ".jfr");
+        try {
+            try (Recording recording = new Recording()) {
+                for (final String event : EVENTS) {
+                    recording.enable(event).withThreshold(Duration.ZERO);
+                }
+                recording.start();
+                breedAndCallConcurrently();
+                recording.stop();
+                recording.dump(file);
+            }
+            final List<RecordedEvent> events = RecordingFile.readAllEvents(file);
+            final List<String> names = events
+                    .stream()
+                    .map(event -> event.getEventType().getName())
+                    .distinct()
+                    .collect(Collectors.toList());
+            assertThat(names, containsInAnyOrder(EVENTS));
+            for (final RecordedEvent event : events) {
+                if (event.hasField("method")) {
+                    assertThat(event.getString("method"), is(Recorded.class.getName() + ".value"));
+                }
+            }
+        } finally {
+            Files.delete(file);
+        }
+    }
+
+    @Test
+    public void testResolutionsOfNeuronBredBeforeRecording() throws Exception {
+        assumeTrue(FlightRecorder.isAvailable());
+        final Resolved resolved = Incubator
+                .wire(Resolved.class)
+                .bind(Resolved::inlined).toLong(() -> 1L)
+                .bind(Resolved::decorated).toInt(() -> 2)
+                .bind(Resolved::disabled).to(() -> "3")
+                .breed();
+        final Path file = Files.createTempFile("neuron-di", ".jfr");
+        try {
+            try (Recording recording = new Recording()) {
+                recording.enable("global.namespace.neuron.di.Resolution").withThreshold(Duration.ZERO);
+                recording.start();
+                for (int i = 0; i < 3; i++) {
+                    assertThat(resolved.inlined(), is(1L));
+                    assertThat(resolved.decorated(), is(2));
+                    assertThat(resolved.disabled(), is("3"));
+                }
+                recording.stop();
+                recording.dump(file);
+            }
+            final List<String> methods = RecordingFile
+                    .readAllEvents(file)
+                    .stream()
+                    .map(event -> event.getString("method"))
+                    .collect(Collectors.toList());
+            assertThat(methods, containsInAnyOrder(
+                    Resolved.class.getName() + ".inlined",
+                    Resolved.class.getName() + ".decorated",
+                    Resolved.class.getName() + ".disabled",
+                    Resolved.class.getName() + ".disabled",
+                    Resolved.class.getName() + ".disabled"));
+        } finally {
+            Files.delete(file);
+        }
+    }
+
+    private static void breedAndCallConcurrently() throws Exception {
+        final CountDownLatch resolving = new CountDownLatch(1);
+        final CountDownLatch release = new CountDownLatch(1);
+        final Recorded recorded = Incubator
+                .wire(Recorded.class)
+                .bind(Recorded::value).to(() -> {
+                    resolving.countDown();
+                    release.await(10, TimeUnit.SECONDS);
+                    return "value";
+                })
+                .breed();
+        final ExecutorService executor = Executors.newFixedThreadPool(2);
+        try {
+            final Future<String> first = executor.submit(recorded::value);
+            resolving.await(10, TimeUnit.SECONDS);
+            final Future<String> second = executor.submit(recorded::value);
+            Thread.sleep(100);
+            release.countDown();
+            assertThat(first.get(), is("value"));
+            assertThat(second.get(), is("value"));
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Neuron
+    public interface Recorded {
+
+        @Caching
+        String value();
+    }
+
+    @Neuron
+    public interface Resolved {
+
+        @Caching
+        long inlined();
+
+        @Caching(CachingStrategy.SOFT)
+        Integer decorated();
+
+        String disabled();
+    }
+}
@@ -0,0 +1,84 @@
+/*
+ * Copyright © 2016 - 2021 Schlichtherle IT Services
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package global.namespace.neuron.di.java.test;
+
+import global.namespace.neuron.di.java.Incubator;
+import global.namespace.neuron.di.java.Neuron;
+import org.junit.Test;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+
+public class MethodReferenceResolutionTest {
+
+    private static final AtomicInteger calls = new AtomicInteger();
+
+    @Test
+    public void testStatelessMethodReferenceIsResolvedOnlyOnce() {
+        calls.set(0);
+        for (int i = 0; i < 3; i++) {
+            final Greeting greeting = Incubator
+                    .wire(Greeting.class)
+                    .bind(g -> {
+                        calls.incrementAndGet();
+                        return g.message();
+                    }).to("Hello world!")
+                    .breed();
+            assertThat(greeting.message(), is("Hello world!"));
+        }
+        assertThat(calls.get(), is(1));
+    }
+
+    @Test
+    public void testCapturingMethodReferenceIsResolvedEveryTime() {
+        final AtomicInteger calls = new AtomicInteger();
+        for (int i = 0; i < 3; i++) {
+            final Greeting greeting = Incubator
+                    .wire(Greeting.class)
+                    .bind(g -> {
+                        calls.incrementAndGet();
+                        return g.message();
+                    }).to("Hello world!")
+                    .breed();
+            assertThat(greeting.message(), is("Hello world!"));
+        }
+        assertThat(calls.get(), is(3));
+    }
+
+    @Test
+    public void testSameMethodReferenceClassForDifferentNeuronTypes() {
+        assertThat(wire(Greeting.class).message(), is("Hello world!"));
+        assertThat(wire(FormalGreeting.class).message(), is("Hello world!"));
+    }
+
+    private static <G extends Greeting> G wire(Class<G> clazz) {
+        return Incubator.wire(clazz).bind(Greeting::message).to("Hello world!").partial(true).breed();
+    }
+
+    @Neuron
+    public interface Greeting {
+
+        String message();
+    }
+
+    @Neuron
+    public interface FormalGreeting extends Greeting {
+
+        String title();
+    }
+}
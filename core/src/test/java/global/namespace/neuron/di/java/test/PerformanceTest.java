@@ -50,6 +50,9 @@ public class PerformanceTest {
             neuron = timeConstructions(new NeuronGreetingFactory());
             printf("Construction overhead [factor ]: %5.1f%n", ((double) neuron) / simple);
 
+            neuron = timeConstructions(new BlueprintGreetingFactory());
+            printf("Blueprint overhead    [factor ]: %5.1f%n", ((double) neuron) / simple);
+
             simple = timeInvocations(new SimpleGreetingFactory().greeting());
             neuron = timeInvocations(new NeuronGreetingFactory().greeting());
             printf("Invocation overhead   [percent]: %5.1f%%%n", (((double) neuron) / simple - 1d) * 100d);
@@ -95,6 +98,18 @@ public class PerformanceTest {
         }
     }
 
+    private static class BlueprintGreetingFactory implements GreetingFactory {
+
+        private static final Incubator.Blueprint<RealGreeting> blueprint = Incubator
+                .wire(RealGreeting.class)
+                .bind(RealGreeting::formatter).to(helloFormatter)
+                .compile();
+
+        public Greeting greeting() {
+            return blueprint.breed();
+        }
+    }
+
     private static class SimpleGreetingFactory implements GreetingFactory {
 
         @Override
@@ -0,0 +1,69 @@
+/*
+ * Copyright © 2016 - 2021 Schlichtherle IT Services
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package global.namespace.neuron.di.java.test;
+
+import global.namespace.neuron.di.java.BreedingException;
+import global.namespace.neuron.di.java.Incubator;
+import global.namespace.neuron.di.java.Neuron;
+import org.junit.Test;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+
+public class PrepareTest {
+
+    @Test
+    public void testPrepare() {
+        Incubator.prepare(Application.class, String.class);
+        final Application app = Incubator.breed(Application.class);
+        assertThat(app.service().repository().name(), is("repository"));
+    }
+
+    @Test(expected = BreedingException.class)
+    public void testPrepareBroken() {
+        Incubator.prepare(Broken.class);
+    }
+
+    @Neuron
+    public interface Application {
+
+        Service service();
+    }
+
+    @Neuron
+    public interface Service {
+
+        Repository repository();
+    }
+
+    @Neuron
+    public static abstract class Repository {
+
+        String name() {
+            return "repository";
+        }
+
+        // This synapse type cannot be proxied, so it must be ignored when preparing, but it's never called either:
+        abstract Broken broken();
+
+        // The return type is not a neuron type, so it must be ignored when preparing:
+        abstract Runnable runnable();
+    }
+
+    @Neuron
+    public static final class Broken {
+    }
+}
@@ -0,0 +1,139 @@
+/*
+ * Copyright © 2016 - 2021 Schlichtherle IT Services
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package global.namespace.neuron.di.java.test;
+
+import global.namespace.neuron.di.java.BreedingException;
+import global.namespace.neuron.di.java.Caching;
+import global.namespace.neuron.di.java.Incubator;
+import global.namespace.neuron.di.java.LongDependencyProvider;
+import global.namespace.neuron.di.java.Neuron;
+import org.junit.Test;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+import static global.namespace.neuron.di.java.CachingStrategy.THREAD_LOCAL;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+
+public class PrimitiveDependencyProviderTest {
+
+    @Test
+    public void testPrimitiveProviders() {
+        final AtomicLong counter = new AtomicLong();
+        final Metrics metrics = Incubator
+                .wire(Metrics.class)
+                .bind(Metrics::count).toInt(() -> 42)
+                .bind(Metrics::total).toLong(counter::incrementAndGet)
+                .bind(Metrics::ratio).toDouble(() -> 0.5)
+                .bind(Metrics::level).toInt(() -> 1)
+                .bind(Metrics::grade).toInt(() -> 'A')
+                .bind(Metrics::weight).toDouble(() -> 1.5)
+                .bind(Metrics::boxedTotal).toInt(() -> 7)
+                .bind(Metrics::anything).toInt(() -> 3)
+                .breed();
+        assertThat(metrics.count(), is(42));
+        assertThat(metrics.total(), is(1L));
+        assertThat(metrics.total(), is(2L));
+        assertThat(metrics.ratio(), is(0.5));
+        assertThat(metrics.level(), is((short) 1));
+        assertThat(metrics.grade(), is('A'));
+        assertThat(metrics.weight(), is(1.5f));
+        assertThat(metrics.boxedTotal(), is(7L));
+        assertThat(metrics.anything(), is(3));
+        assertThat(metrics.sum(), is(43.5));
+    }
+
+    @Test
+    public void testWideningConversions() {
+        final Metrics metrics = Incubator
+                .wire(Metrics.class)
+                .partial(true)
+                .bind(Metrics::total).toInt(() -> 42)
+                .bind(Metrics::ratio).toLong(() -> 42L)
+                .breed();
+        assertThat(metrics.total(), is(42L));
+        assertThat(metrics.ratio(), is(42.0));
+    }
+
+    @Test
+    public void testResolver() {
+        final Metrics metrics = Incubator
+                .wire(Metrics.class)
+                .partial(true)
+                .bind(Metrics::count).toInt(() -> 2)
+                .bind(Metrics::total).to(m -> m.count() * 10L)
+                .breed();
+        assertThat(metrics.total(), is(20L));
+    }
+
+    @Test
+    public void testCachingStrategies() {
+        final AtomicLong counter = new AtomicLong();
+        final Metrics metrics = Incubator
+                .wire(Metrics.class)
+                .partial(true)
+                .bind(Metrics::total).toLong(counter::incrementAndGet)
+                .bind(Metrics::ratio).toDouble(() -> 0.5)
+                .breed();
+        assertThat(metrics.cachedTotal(), is(1L));
+        assertThat(metrics.cachedTotal(), is(1L));
+        assertThat(metrics.threadLocalRatio(), is(0.5));
+    }
+
+    @Test(expected = BreedingException.class)
+    public void testLossOfPrecision() {
+        final LongDependencyProvider provider = () -> 42L;
+        Incubator
+                .wire(Metrics.class)
+                .partial(true)
+                .bind(Metrics::count).toLong(provider)
+                .breed();
+    }
+
+    @Neuron
+    public interface Metrics {
+
+        int count();
+
+        long total();
+
+        double ratio();
+
+        short level();
+
+        char grade();
+
+        float weight();
+
+        Long boxedTotal();
+
+        Object anything();
+
+        default double sum() {
+            return count() + ratio() + level();
+        }
+
+        @Caching
+        default long cachedTotal() {
+            return total();
+        }
+
+        @Caching(THREAD_LOCAL)
+        default double threadLocalRatio() {
+            return ratio();
+        }
+    }
+}
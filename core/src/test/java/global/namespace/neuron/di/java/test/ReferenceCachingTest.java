@@ -0,0 +1,120 @@
+/*
+ * Copyright © 2016 - 2021 Schlichtherle IT Services
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package global.namespace.neuron.di.java.test;
+
+import global.namespace.neuron.di.java.Caching;
+import global.namespace.neuron.di.java.Incubator;
+import global.namespace.neuron.di.java.Neuron;
+import org.junit.Test;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static global.namespace.neuron.di.java.CachingStrategy.SOFT;
+import static global.namespace.neuron.di.java.CachingStrategy.WEAK;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+
+public class ReferenceCachingTest {
+
+    @Test
+    public void testSoftCaching() {
+        final Tables tables = Incubator.breed(Tables.class);
+        assertThat(tables.soft(), is(sameInstance(tables.soft())));
+    }
+
+    @Test
+    public void testWeakCaching() {
+        final Tables tables = Incubator.breed(Tables.class);
+        final int[] table = tables.weak();
+        assertThat(tables.weak(), is(sameInstance(table)));
+    }
+
+    @Test
+    public void testWeakCachingResolvesAgainAfterCollection() throws InterruptedException {
+        final AtomicInteger counter = new AtomicInteger();
+        final Tables tables = Incubator
+                .wire(Tables.class)
+                .bind(Tables::weak).to(() -> {
+                    counter.incrementAndGet();
+                    return new int[1024];
+                })
+                .partial(true)
+                .breed();
+        assertThat(tables.weak().length, is(1024));
+        for (int i = 0; i < 100 && 1 == counter.get(); i++) {
+            System.gc();
+            Thread.sleep(10);
+            assertThat(tables.weak().length, is(1024));
+        }
+        assertThat(counter.get(), is(greaterThan(1)));
+    }
+
+    @Test
+    public void testCachingNull() {
+        final AtomicInteger counter = new AtomicInteger();
+        final Tables tables = Incubator
+                .wire(Tables.class)
+                .bind(Tables::soft).to(() -> {
+                    counter.incrementAndGet();
+                    return null;
+                })
+                .partial(true)
+                .breed();
+        assertThat(tables.soft(), is(nullValue()));
+        assertThat(tables.soft(), is(nullValue()));
+        assertThat(counter.get(), is(1));
+    }
+
+    @Test
+    public void testConcurrentMisses() {
+        final AtomicInteger counter = new AtomicInteger();
+        final Tables tables = Incubator
+                .wire(Tables.class)
+                .bind(Tables::soft).to(() -> {
+                    counter.incrementAndGet();
+                    Thread.sleep(10);
+                    return new int[1024];
+                })
+                .partial(true)
+                .breed();
+        final List<int[]> results = IntStream
+                .range(0, 16)
+                .parallel()
+                .mapToObj(i -> tables.soft())
+                .collect(Collectors.toList());
+        assertThat(counter.get(), is(1));
+        for (final int[] result : results) {
+            assertThat(result, is(sameInstance(results.get(0))));
+        }
+    }
+
+    @Neuron
+    public interface Tables {
+
+        @Caching(SOFT)
+        default int[] soft() {
+            return new int[1024];
+        }
+
+        @Caching(WEAK)
+        default int[] weak() {
+            return new int[1024];
+        }
+    }
+}
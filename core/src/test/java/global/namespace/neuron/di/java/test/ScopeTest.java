@@ -0,0 +1,108 @@
+/*
+ * Copyright © 2016 - 2021 Schlichtherle IT Services
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package global.namespace.neuron.di.java.test;
+
+import global.namespace.neuron.di.java.Incubator;
+import global.namespace.neuron.di.java.Neuron;
+import org.junit.Test;
+
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+
+public class ScopeTest {
+
+    @Test
+    public void testSharing() {
+        final Incubator.Scope scope = Incubator.scope();
+        final Application app = scope.breed(Application.class);
+        assertThat(app, is(sameInstance(scope.breed(Application.class))));
+        assertThat(app.service(), is(sameInstance(app.service())));
+        assertThat(app.service(), is(sameInstance(scope.breed(Service.class))));
+        assertThat(app.repository(), is(sameInstance(app.service().repository())));
+    }
+
+    @Test
+    public void testIsolation() {
+        final Application app1 = Incubator.scope().breed(Application.class);
+        final Application app2 = Incubator.scope().breed(Application.class);
+        assertThat(app1, is(not(sameInstance(app2))));
+        assertThat(app1.service(), is(not(sameInstance(app2.service()))));
+    }
+
+    @Test
+    public void testNesting() {
+        final Incubator.Scope singleton = Incubator.scope();
+        final Incubator.Scope request1 = singleton.nest(clazz -> clazz == Request.class);
+        final Incubator.Scope request2 = singleton.nest(clazz -> clazz == Request.class);
+        final Request r1 = request1.breed(Request.class);
+        final Request r2 = request2.breed(Request.class);
+        assertThat(r1, is(sameInstance(request1.breed(Request.class))));
+        assertThat(r1, is(not(sameInstance(r2))));
+        assertThat(r1.service(), is(sameInstance(r2.service())));
+        assertThat(r1.service(), is(sameInstance(singleton.breed(Service.class))));
+    }
+
+    @Test
+    public void testClose() {
+        final Incubator.Scope scope = Incubator.scope();
+        final Application app = scope.breed(Application.class);
+        final Service service = app.service();
+        scope.close();
+        final Application app2 = scope.breed(Application.class);
+        assertThat(app2, is(not(sameInstance(app))));
+        assertThat(app2.service(), is(not(sameInstance(service))));
+    }
+
+    @Test
+    public void testConcurrentBreeding() {
+        final Incubator.Scope scope = Incubator.scope();
+        final List<Service> services = IntStream
+                .range(0, 100)
+                .parallel()
+                .mapToObj(i -> scope.breed(Application.class).service())
+                .collect(Collectors.toList());
+        for (final Service service : services) {
+            assertThat(service, is(sameInstance(services.get(0))));
+        }
+    }
+
+    @Neuron
+    public interface Application {
+
+        Service service();
+
+        Repository repository();
+    }
+
+    @Neuron
+    public interface Request {
+
+        Service service();
+    }
+
+    @Neuron
+    public interface Service {
+
+        Repository repository();
+    }
+
+    public static class Repository {
+    }
+}
@@ -0,0 +1,87 @@
+/*
+ * Copyright © 2016 - 2021 Schlichtherle IT Services
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package global.namespace.neuron.di.java.test;
+
+import global.namespace.neuron.di.java.Caching;
+import global.namespace.neuron.di.java.CachingScope;
+import global.namespace.neuron.di.java.Incubator;
+import global.namespace.neuron.di.java.Neuron;
+import org.junit.Test;
+
+import java.util.concurrent.atomic.AtomicReference;
+
+import static global.namespace.neuron.di.java.CachingStrategy.SCOPED;
+import static global.namespace.neuron.di.java.CachingStrategy.THREAD_LOCAL;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+
+public class ScopedCachingTest {
+
+    @Test
+    public void testCachingInScope() throws Exception {
+        final Session session = Incubator.breed(Session.class);
+        final Object user = CachingScope.call(() -> {
+            final Object u = session.user();
+            assertThat(session.user(), is(sameInstance(u)));
+            CachingScope.run(() -> assertThat(session.user(), is(sameInstance(u))));
+            return u;
+        });
+        CachingScope.run(() -> assertThat(session.user(), is(not(sameInstance(user)))));
+    }
+
+    @Test
+    public void testNoCachingOutOfScope() {
+        final Session session = Incubator.breed(Session.class);
+        assertThat(session.user(), is(not(sameInstance(session.user()))));
+    }
+
+    @Test
+    public void testNoInheritanceByOtherThreads() throws InterruptedException {
+        final Session session = Incubator.breed(Session.class);
+        final AtomicReference<Object> other = new AtomicReference<>();
+        CachingScope.run(() -> {
+            final Thread thread = new Thread(() -> other.set(session.user()));
+            thread.start();
+            try {
+                thread.join();
+            } catch (InterruptedException e) {
+                throw new AssertionError(e);
+            }
+            assertThat(session.user(), is(not(sameInstance(other.get()))));
+        });
+    }
+
+    @Test
+    public void testThreadLocalCachingOfNull() {
+        final Session session = Incubator.breed(Session.class);
+        assertThat(session.nothing(), is(nullValue()));
+        assertThat(session.nothing(), is(nullValue()));
+    }
+
+    @Neuron
+    public interface Session {
+
+        @Caching(SCOPED)
+        default Object user() {
+            return new Object();
+        }
+
+        @Caching(THREAD_LOCAL)
+        default Object nothing() {
+            return null;
+        }
+    }
+}
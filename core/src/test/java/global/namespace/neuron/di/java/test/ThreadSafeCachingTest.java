@@ -0,0 +1,143 @@
+/*
+ * Copyright © 2016 - 2021 Schlichtherle IT Services
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package global.namespace.neuron.di.java.test;
+
+import global.namespace.neuron.di.java.Caching;
+import global.namespace.neuron.di.java.Incubator;
+import global.namespace.neuron.di.java.Neuron;
+import org.junit.Test;
+
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+
+public class ThreadSafeCachingTest {
+
+    private static final int THREADS = 16;
+
+    @Test
+    public void testConcurrentCallsResolveTheDependencyOnlyOnce() throws Exception {
+        final AtomicInteger calls = new AtomicInteger();
+        final CountDownLatch resolving = new CountDownLatch(1);
+        final Service service = Incubator
+                .wire(Service.class)
+                .bind(Service::name).to(() -> {
+                    calls.incrementAndGet();
+                    resolving.await(10, TimeUnit.SECONDS);
+                    return "name";
+                })
+                .bind(Service::id).to(() -> 42L)
+                .breed();
+        final ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        try {
+            final CyclicBarrier barrier = new CyclicBarrier(THREADS);
+            final List<Future<String>> futures = new ArrayList<>(THREADS);
+            for (int i = 0; i < THREADS; i++) {
+                futures.add(executor.submit(() -> {
+                    barrier.await();
+                    return service.name();
+                }));
+            }
+            resolving.countDown();
+            for (final Future<String> future : futures) {
+                assertThat(future.get(), is("name"));
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+        assertThat(calls.get(), is(1));
+        assertThat(service.id(), is(42L));
+    }
+
+    @Test
+    public void testTheLockIsReleasedIfResolvingTheDependencyFails() {
+        final AtomicInteger calls = new AtomicInteger();
+        final Service service = Incubator
+                .wire(Service.class)
+                .bind(Service::name).to(() -> {
+                    if (1 == calls.incrementAndGet()) {
+                        throw new IllegalStateException();
+                    }
+                    return "name";
+                })
+                .bind(Service::id).to(() -> 42L)
+                .breed();
+        try {
+            service.name();
+            throw new AssertionError();
+        } catch (IllegalStateException expected) {
+        }
+        assertThat(service.name(), is("name"));
+        assertThat(service.name(), is("name"));
+        assertThat(calls.get(), is(2));
+    }
+
+    @Test
+    public void testResolvingOneMethodDoesNotBlockAnotherMethod() throws Exception {
+        final CountDownLatch resolving = new CountDownLatch(1);
+        final CountDownLatch resolved = new CountDownLatch(1);
+        final Service service = Incubator
+                .wire(Service.class)
+                .bind(Service::name).to(() -> {
+                    resolving.countDown();
+                    resolved.await(10, TimeUnit.SECONDS);
+                    return "name";
+                })
+                .bind(Service::id).to(() -> 42L)
+                .breed();
+        final ExecutorService executor = Executors.newSingleThreadExecutor();
+        try {
+            final Future<String> name = executor.submit(service::name);
+            resolving.await();
+            final Future<Long> id = ForkJoinPool.commonPool().submit(service::id);
+            assertThat(id.get(5, TimeUnit.SECONDS), is(42L));
+            resolved.countDown();
+            assertThat(name.get(), is("name"));
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    public void testCacheMethodsAreNotSynchronized() {
+        final Service service = Incubator
+                .wire(Service.class)
+                .bind(Service::name).to("name")
+                .bind(Service::id).to(() -> 42L)
+                .breed();
+        for (final Method method : service.getClass().getDeclaredMethods()) {
+            if (method.getName().endsWith("$cache") || method.getName().endsWith("$lock")) {
+                assertThat(method.toString(), Modifier.isSynchronized(method.getModifiers()), is(false));
+            }
+        }
+    }
+
+    @Neuron
+    public interface Service {
+
+        @Caching
+        String name();
+
+        @Caching
+        long id();
+    }
+}
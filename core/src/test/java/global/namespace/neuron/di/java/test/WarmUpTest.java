@@ -0,0 +1,167 @@
+/*
+ * Copyright © 2016 - 2021 Schlichtherle IT Services
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package global.namespace.neuron.di.java.test;
+
+import global.namespace.neuron.di.java.BreedingException;
+import global.namespace.neuron.di.java.Caching;
+import global.namespace.neuron.di.java.Incubator;
+import global.namespace.neuron.di.java.Neuron;
+import org.junit.Test;
+
+import java.lang.reflect.Method;
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static global.namespace.neuron.di.java.CachingStrategy.THREAD_LOCAL;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+
+public class WarmUpTest {
+
+    @Test
+    public void testIndependentSubtreesAreWarmedUpConcurrently() throws Exception {
+        final CountDownLatch latch = new CountDownLatch(2);
+        final AtomicInteger calls = new AtomicInteger();
+        final App app = Incubator
+                .wire(App.class)
+                .bind(App::database).to(() -> Incubator
+                        .wire(Database.class)
+                        .bind(Database::connection).to(() -> {
+                            calls.incrementAndGet();
+                            latch.countDown();
+                            return latch.await(10, TimeUnit.SECONDS) ? "connection" : "timeout";
+                        })
+                        .breed())
+                .bind(App::search).to(() -> Incubator
+                        .wire(Search.class)
+                        .bind(Search::index).to(() -> {
+                            calls.incrementAndGet();
+                            latch.countDown();
+                            return latch.await(10, TimeUnit.SECONDS) ? "index" : "timeout";
+                        })
+                        .breed())
+                .bind(App::session).to(() -> {
+                    throw new AssertionError();
+                })
+                .breed();
+        final ExecutorService executor = Executors.newFixedThreadPool(4);
+        final Map<Method, Duration> timings;
+        try {
+            timings = Incubator.warmUp(app, executor);
+        } finally {
+            executor.shutdownNow();
+        }
+        assertThat(timings.keySet(), containsInAnyOrder(
+                App.class.getMethod("database"),
+                App.class.getMethod("search"),
+                Database.class.getMethod("connection"),
+                Search.class.getMethod("index")));
+        assertThat(calls.get(), is(2));
+        assertThat(app.database().connection(), is("connection"));
+        assertThat(app.search().index(), is("index"));
+        assertThat(calls.get(), is(2));
+    }
+
+    @Test
+    public void testMethodsOfTheSameNeuronAreWarmedUpConcurrently() throws Exception {
+        final Slow slow = Incubator
+                .wire(Slow.class)
+                .bind(Slow::fast).to(() -> {
+                    Thread.sleep(500);
+                    return "fast";
+                })
+                .bind(Slow::slow).to(() -> {
+                    Thread.sleep(700);
+                    return "slow";
+                })
+                .breed();
+        final ExecutorService executor = Executors.newFixedThreadPool(2);
+        final long start = System.nanoTime();
+        final Map<Method, Duration> timings;
+        try {
+            timings = Incubator.warmUp(slow, executor);
+        } finally {
+            executor.shutdownNow();
+        }
+        final Duration elapsed = Duration.ofNanos(System.nanoTime() - start);
+        assertThat(elapsed, is(lessThan(Duration.ofMillis(1100))));
+        assertThat(timings.get(Slow.class.getMethod("fast")), is(lessThan(Duration.ofMillis(700))));
+        assertThat(timings.get(Slow.class.getMethod("slow")), is(lessThan(Duration.ofMillis(1100))));
+    }
+
+    @Test
+    public void testFailure() {
+        final Database database = Incubator
+                .wire(Database.class)
+                .bind(Database::connection).to(() -> {
+                    throw new IllegalStateException();
+                })
+                .breed();
+        try {
+            Incubator.warmUp(database);
+            throw new AssertionError();
+        } catch (BreedingException e) {
+            assertThat(e.getCause(), is(instanceOf(IllegalStateException.class)));
+        }
+    }
+
+    @Test
+    public void testNonNeuron() {
+        assertThat(Incubator.warmUp(new Object()).isEmpty(), is(true));
+    }
+
+    @Neuron
+    public interface App {
+
+        @Caching
+        Database database();
+
+        @Caching
+        Search search();
+
+        @Caching(THREAD_LOCAL)
+        String session();
+    }
+
+    @Neuron
+    public interface Slow {
+
+        @Caching
+        String fast();
+
+        @Caching
+        String slow();
+    }
+
+    @Neuron
+    public interface Database {
+
+        @Caching
+        String connection();
+    }
+
+    @Neuron
+    public interface Search {
+
+        @Caching
+        String index();
+    }
+}
@@ -0,0 +1,110 @@
+/*
+ * Copyright © 2016 - 2021 Schlichtherle IT Services
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package global.namespace.neuron.di.internal
+
+import global.namespace.neuron.di.internal.DelegateProvidersSpec._
+import global.namespace.neuron.di.java._
+import org.scalatest.matchers.should.Matchers._
+import org.scalatest.wordspec.AnyWordSpec
+
+class DelegateProvidersSpec extends AnyWordSpec {
+
+  "A delegate provider" should {
+    "access a method of a delegate object" in {
+      val provider = newProvider("host", classOf[Delegate].getMethod("host"), new Delegate)
+      provider.get shouldBe "localhost"
+    }
+
+    "implement the primitive dependency provider interface which matches the type of the member" in {
+      newProvider("port", classOf[Delegate].getMethod("port"), new Delegate) match {
+        case p: IntDependencyProvider => p.getAsInt shouldBe 8080
+      }
+      newProvider("timeout", classOf[Delegate].getMethod("timeout"), new Delegate) match {
+        case p: LongDependencyProvider => p.getAsLong shouldBe 30000L
+      }
+      newProvider("ratio", classOf[Delegate].getMethod("ratio"), new Delegate) match {
+        case p: DoubleDependencyProvider => p.getAsDouble shouldBe 0.5
+      }
+    }
+
+    "be bound to the given delegate object" in {
+      val factory = DelegateProviders.factory(classOf[Config].getMethod("host"), classOf[Delegate].getMethod("host")).get
+      val delegate = new Delegate { override def host = "example.com" }
+      factory(delegate).get shouldBe "example.com"
+      factory(new Delegate).get shouldBe "localhost"
+    }
+  }
+
+  "DelegateProviders.factory" should {
+    "not support private members" in {
+      val member = classOf[Delegate].getDeclaredField("secret")
+      DelegateProviders.factory(classOf[Config].getMethod("host"), member).isPresent shouldBe false
+    }
+
+    "not support a member with a primitive type which doesn't match the return type of the synapse method" in {
+      val member = classOf[Delegate].getMethod("port")
+      DelegateProviders.factory(classOf[Config].getMethod("boxedPort"), member).isPresent shouldBe false
+      DelegateProviders.factory(classOf[Config].getMethod("timeout"), member).isPresent shouldBe false
+    }
+  }
+
+  "Incubator.wire(...).using(...)" should {
+    "delegate to the members of the delegate object" in {
+      val config = Incubator.wire(classOf[Config]).using(new Delegate)
+      config.host shouldBe "localhost"
+      config.port shouldBe 8080
+      config.boxedPort shouldBe 8080
+      config.timeout shouldBe 30000L
+      config.ratio shouldBe 0.5f
+    }
+  }
+
+  private def newProvider(synapse: String, member: java.lang.reflect.Member, delegate: AnyRef): DependencyProvider[_] = {
+    DelegateProviders.factory(classOf[Config].getMethod(synapse), member).get.apply(delegate)
+  }
+}
+
+private object DelegateProvidersSpec {
+
+  @Neuron
+  abstract class Config {
+
+    def host: String
+
+    def port: Int
+
+    def boxedPort: Integer
+
+    def timeout: Long
+
+    def ratio: Float
+  }
+
+  class Delegate {
+
+    private val secret = "secret"
+
+    def host: String = "localhost"
+
+    def port: Int = 8080
+
+    def boxedPort: Integer = 8080
+
+    def timeout: Long = 30000L
+
+    def ratio: Float = 0.5f
+  }
+}
@@ -0,0 +1,92 @@
+/*
+ * Copyright © 2016 - 2021 Schlichtherle IT Services
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package global.namespace.neuron.di.internal
+
+import java.io.File
+import java.lang.reflect.Method
+import java.net.{URI, URLClassLoader}
+import java.nio.file.{Files, Path}
+import java.util.Collections.singletonList
+
+import global.namespace.neuron.di.java.{DependencyProvider, Incubator, Neuron}
+import global.namespace.neuron.di.internal.NeuronProcessorSpec._
+import javax.tools.JavaFileObject.Kind.SOURCE
+import javax.tools.{SimpleJavaFileObject, ToolProvider}
+import org.scalatest.matchers.should.Matchers._
+import org.scalatest.wordspec.AnyWordSpec
+
+import scala.jdk.CollectionConverters._
+
+class NeuronProcessorSpec extends AnyWordSpec {
+
+  "The neuron processor" should {
+    "not generate proxy classes by default" in {
+      val classes = compileSource(GreeterSource)
+      proxyClassFilesIn(classes) shouldBe empty
+    }
+
+    "generate proxy classes if the precompile option is enabled" in {
+      val classes = compileSource(GreeterSource, s"-A${NeuronProcessor.PRECOMPILE_OPTION}=true")
+      val proxyClassFiles = proxyClassFilesIn(classes)
+      proxyClassFiles should have size 1
+
+      val loader = new URLClassLoader(Array(classes.toUri.toURL), classOf[Neuron].getClassLoader)
+      val clazz = loader.loadClass("sample.Greeter")
+      val neuron = Incubator.breed(clazz, (_: Method) => ((() => "world"): DependencyProvider[String]))
+      neuron.getClass.getName + ".class" shouldBe proxyClassFiles.head
+      clazz.getMethod("greeting").invoke(neuron) shouldBe "Hello world!"
+      neuron.getClass.getDeclaredAnnotation(classOf[Neuron]) should not be null
+    }
+  }
+}
+
+private object NeuronProcessorSpec {
+
+  val GreeterSource: String =
+    """package sample;
+      |
+      |import global.namespace.neuron.di.java.*;
+      |
+      |@Neuron
+      |public abstract class Greeter {
+      |
+      |    @Caching
+      |    public String greeting() { return "Hello " + name() + "!"; }
+      |
+      |    protected abstract String name();
+      |}
+      |""".stripMargin
+
+  def compileSource(source: String, options: String*): Path = {
+    val classes = Files.createTempDirectory("classes")
+    val file = new SimpleJavaFileObject(URI.create("string:///sample/Greeter.java"), SOURCE) {
+
+      override def getCharContent(ignoreEncodingErrors: Boolean): CharSequence = source
+    }
+    val classpath = Seq(classOf[Neuron], classOf[org.objectweb.asm.ClassVisitor])
+      .map(c => new File(c.getProtectionDomain.getCodeSource.getLocation.toURI).getPath)
+      .mkString(File.pathSeparator)
+    val task = ToolProvider.getSystemJavaCompiler.getTask(null, null, null,
+      (Seq("-classpath", classpath, "-d", classes.toString) ++ options).asJava, null, singletonList(file))
+    task.setProcessors(singletonList(new NeuronProcessor))
+    task.call() shouldBe true
+    classes
+  }
+
+  def proxyClassFilesIn(classes: Path): Seq[String] = {
+    Option(classes.resolve("sample").toFile.list).toSeq.flatten.filter(_ contains "$$proxy").map("sample." + _)
+  }
+}
@@ -0,0 +1,87 @@
+/*
+ * Copyright © 2016 - 2021 Schlichtherle IT Services
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package global.namespace.neuron.di.internal
+
+import global.namespace.neuron.di.internal.ProxyFactorySpec._
+import global.namespace.neuron.di.java.CachingStrategy._
+import global.namespace.neuron.di.java.{Caching, Incubator, Neuron}
+import org.scalatest.matchers.should.Matchers._
+import org.scalatest.wordspec.AnyWordSpec
+
+class ProxyFactorySpec extends AnyWordSpec {
+
+  "A proxy factory" should {
+    "not create dependency providers for unbound non-abstract methods" in {
+      val neuron = Incubator.breed(classOf[NeuronWithNonAbstractMethods])
+      neuron.disabled shouldBe "disabled"
+      neuron.notThreadSafe shouldBe "notThreadSafe"
+      neuron.threadSafe shouldBe "threadSafe"
+      provider(neuron, "disabled") shouldBe null
+      provider(neuron, "notThreadSafe") shouldBe null
+      provider(neuron, "threadSafe") shouldBe null
+    }
+
+    "create a dependency provider for an unbound non-abstract method if its caching strategy decorates it" in {
+      val neuron = Incubator.breed(classOf[NeuronWithNonAbstractMethods])
+      neuron.threadLocal shouldBe "threadLocal"
+      provider(neuron, "threadLocal") should not be null
+    }
+
+    "create a dependency provider for a bound non-abstract method" in {
+      val neuron = Incubator
+        .wire(classOf[NeuronWithNonAbstractMethods])
+        .bind(_.disabled).to(() => "bound")
+        .breed
+      neuron.disabled shouldBe "bound"
+      provider(neuron, "disabled") should not be null
+    }
+
+    "define a hidden proxy class if supported" in {
+      val neuron = Incubator.breed(classOf[NeuronWithNonAbstractMethods])
+      val hidden = Reflection.definesHiddenSubclass(classOf[NeuronWithNonAbstractMethods])
+      Reflection.isHidden(neuron.getClass) shouldBe hidden
+      neuron.getClass.getDeclaredMethods.exists(_.getName.endsWith("$shim")) shouldBe !hidden
+      neuron.threadLocal shouldBe "threadLocal"
+      if (hidden) {
+        info("The proxy class is hidden.")
+      }
+    }
+  }
+
+  private def provider(neuron: AnyRef, methodName: String): AnyRef = {
+    val field = neuron.getClass.getDeclaredField("$" + methodName)
+    field.setAccessible(true)
+    field.get(neuron)
+  }
+}
+
+private object ProxyFactorySpec {
+
+  @Neuron
+  abstract class NeuronWithNonAbstractMethods {
+
+    def disabled: String = "disabled"
+
+    @Caching(NOT_THREAD_SAFE)
+    def notThreadSafe: String = "notThreadSafe"
+
+    @Caching
+    def threadSafe: String = "threadSafe"
+
+    @Caching(THREAD_LOCAL)
+    def threadLocal: String = "threadLocal"
+  }
+}
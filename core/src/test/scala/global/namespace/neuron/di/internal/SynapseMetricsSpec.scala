@@ -0,0 +1,144 @@
+/*
+ * Copyright © 2016 - 2021 Schlichtherle IT Services
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package global.namespace.neuron.di.internal
+
+import java.lang.management.ManagementFactory
+import java.util.concurrent.atomic.AtomicInteger
+import java.util.concurrent.{CountDownLatch, Executors, TimeUnit}
+
+import global.namespace.neuron.di.internal.SynapseMetricsSpec._
+import global.namespace.neuron.di.java.CachingStrategy._
+import global.namespace.neuron.di.java.test.ExpiringCachingTest.DirectExecutor
+import global.namespace.neuron.di.java.{Caching, DependencyProvider, Neuron}
+import javax.management.ObjectName
+import org.scalatest.matchers.should.Matchers._
+import org.scalatest.wordspec.AnyWordSpec
+
+class SynapseMetricsSpec extends AnyWordSpec {
+
+  "Synapse metrics" should {
+    "count calls, hits, misses and resolutions" in {
+      val metrics = SynapseMetrics.of(classOf[Metered], element("threadSafe"))
+      val provider = metrics.decorate(element("threadSafe"), (() => "value"): DependencyProvider[String])
+      for (_ <- 1 to 3) {
+        provider.get shouldBe "value"
+      }
+      metrics.getCalls shouldBe 3
+      metrics.getHits shouldBe 2
+      metrics.getMisses shouldBe 1
+      metrics.getResolutions shouldBe 1
+      metrics.getResolutionTimeHistogram.sum shouldBe 1
+      metrics.getCachingStrategy shouldBe "THREAD_SAFE"
+    }
+
+    "not cache anything for the DISABLED caching strategy" in {
+      val metrics = SynapseMetrics.of(classOf[Metered], element("disabled"))
+      val provider = metrics.decorate(element("disabled"), (() => new AnyRef): DependencyProvider[AnyRef])
+      provider.get should not be theSameInstanceAs(provider.get)
+      metrics.getCalls shouldBe 2
+      metrics.getHits shouldBe 0
+      metrics.getMisses shouldBe 2
+      metrics.getResolutions shouldBe 2
+    }
+
+    "not count refreshing the EXPIRING caching strategy as a miss" in {
+      val metrics = SynapseMetrics.of(classOf[Metered], element("expiring"))
+      val counter = new AtomicInteger
+      val provider = metrics.decorate(element("expiring"), (() => counter.incrementAndGet): DependencyProvider[Int])
+      provider.get shouldBe 1
+      provider.get shouldBe 1
+      provider.get shouldBe 2
+      metrics.getCalls shouldBe 3
+      metrics.getHits shouldBe 2
+      metrics.getMisses shouldBe 1
+      metrics.getResolutions shouldBe 3
+    }
+
+    "record the time waiting for the lock of the THREAD_SAFE caching strategy" in {
+      val metrics = SynapseMetrics.of(classOf[Metered], element("contended"))
+      val resolving = new CountDownLatch(1)
+      val release = new CountDownLatch(1)
+      val provider = metrics.decorate(element("contended"), (() => {
+        resolving.countDown()
+        release.await(10, TimeUnit.SECONDS)
+        "value"
+      }): DependencyProvider[String])
+      val executor = Executors.newFixedThreadPool(2)
+      try {
+        val first = executor.submit(() => provider.get)
+        resolving.await(10, TimeUnit.SECONDS)
+        val second = executor.submit(() => provider.get)
+        Thread.sleep(100)
+        release.countDown()
+        first.get shouldBe "value"
+        second.get shouldBe "value"
+      } finally {
+        executor.shutdownNow()
+      }
+      metrics.getResolutions shouldBe 1
+      metrics.getLockWaitTimeNanos should be > 0L
+    }
+
+    "be registered with the platform MBean server" in {
+      val metrics = SynapseMetrics.of(classOf[Metered], element("registered"))
+      SynapseMetrics.of(classOf[Metered], element("registered")) should be theSameInstanceAs metrics
+      val provider = metrics.decorate(element("registered"), (() => 42): DependencyProvider[Int])
+      provider.get shouldBe 42
+      ManagementFactory.getPlatformMBeanServer.getAttribute(objectName("registered"), "Calls") shouldBe 1L
+    }
+
+    "be unregistered from the platform MBean server" in {
+      SynapseMetrics.of(classOf[Metered], element("unregistered"))
+      val server = ManagementFactory.getPlatformMBeanServer
+      server isRegistered objectName("unregistered") shouldBe true
+      SynapseMetrics unregister classOf[Metered].getClassLoader
+      server isRegistered objectName("unregistered") shouldBe false
+    }
+  }
+
+  private def objectName(method: String) = {
+    new ObjectName("global.namespace.neuron.di:type=Synapse,loader=" +
+      Integer.toHexString(System.identityHashCode(classOf[Metered].getClassLoader)) +
+      ",neuron=" + classOf[Metered].getName + ",method=" + method)
+  }
+
+  private def element(name: String) = ClassElement.of(classOf[Metered]).element(classOf[Metered].getMethod(name))
+}
+
+private object SynapseMetricsSpec {
+
+  @Neuron
+  trait Metered {
+
+    @Caching(THREAD_SAFE)
+    def threadSafe: String
+
+    def disabled: AnyRef
+
+    @Caching(value = EXPIRING, timeToLive = 1, refreshAhead = 1, timeUnit = TimeUnit.HOURS,
+      executor = classOf[DirectExecutor])
+    def expiring: Int
+
+    @Caching(THREAD_SAFE)
+    def contended: String
+
+    @Caching(THREAD_SAFE)
+    def registered: Int
+
+    @Caching(THREAD_SAFE)
+    def unregistered: Int
+  }
+}
@@ -0,0 +1,96 @@
+/*
+ * Copyright © 2016 - 2021 Schlichtherle IT Services
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package global.namespace.neuron.di.java.test
+
+import java.lang.reflect.Method
+import java.util.concurrent.atomic.AtomicInteger
+
+import global.namespace.neuron.di.java.CachingStrategy._
+import global.namespace.neuron.di.java._
+import global.namespace.neuron.di.java.test.CachingStrategyForPrimitiveReturnTypesSpec._
+import org.scalatest.matchers.should.Matchers._
+import org.scalatest.wordspec.AnyWordSpec
+
+class CachingStrategyForPrimitiveReturnTypesSpec extends AnyWordSpec {
+
+  "A caching synapse method with a primitive return type" should {
+    for (cachingStrategy <- Seq(NOT_THREAD_SAFE, THREAD_SAFE)) {
+      s"cache its return value when using the $cachingStrategy caching strategy" in {
+        val counter = new AtomicInteger
+        val neuron = breed(cachingStrategy, _ => () => counter.incrementAndGet())
+        neuron.int shouldBe 1
+        neuron.int shouldBe 1
+        neuron.long shouldBe 2L
+        neuron.long shouldBe 2L
+        neuron.double shouldBe 3D
+        neuron.double shouldBe 3D
+        neuron.boolean shouldBe true
+        neuron.boolean shouldBe true
+        counter.get shouldBe 4
+      }
+
+      s"not cache an exception when using the $cachingStrategy caching strategy" in {
+        val counter = new AtomicInteger
+        val neuron = breed(cachingStrategy, _ => () => {
+          if (counter.incrementAndGet() == 1) {
+            throw new IllegalStateException
+          }
+          counter.get
+        })
+        intercept[IllegalStateException](neuron.int)
+        neuron.int shouldBe 2
+        neuron.int shouldBe 2
+      }
+    }
+  }
+}
+
+private object CachingStrategyForPrimitiveReturnTypesSpec {
+
+  def breed(cachingStrategy: CachingStrategy, binding: Method => DependencyProvider[Int]): HasPrimitives = {
+    val clazz = cachingStrategy match {
+      case NOT_THREAD_SAFE => classOf[HasPrimitivesWithNotThreadSafeCachingStrategy]
+      case THREAD_SAFE => classOf[HasPrimitivesWithThreadSafeCachingStrategy]
+      case _ => throw new IllegalArgumentException(cachingStrategy.toString)
+    }
+    Incubator.breed(clazz, (method: Method) => {
+      val provider = binding(method)
+      (method.getReturnType match {
+        case java.lang.Integer.TYPE => provider
+        case java.lang.Long.TYPE => () => provider.get.toLong
+        case java.lang.Double.TYPE => () => provider.get.toDouble
+        case java.lang.Boolean.TYPE => () => provider.get > 0
+      }): DependencyProvider[_]
+    })
+  }
+
+  trait HasPrimitives {
+
+    def int: Int
+
+    def long: Long
+
+    def double: Double
+
+    def boolean: Boolean
+  }
+
+  @Neuron(cachingStrategy = NOT_THREAD_SAFE)
+  trait HasPrimitivesWithNotThreadSafeCachingStrategy extends HasPrimitives
+
+  @Neuron(cachingStrategy = THREAD_SAFE)
+  trait HasPrimitivesWithThreadSafeCachingStrategy extends HasPrimitives
+}
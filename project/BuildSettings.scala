@@ -140,4 +140,11 @@ object BuildSettings {
       crossScalaVersions := Seq(ScalaVersion_2_11, ScalaVersion_2_12, ScalaVersion_2_13),
     )
   }
+
+  lazy val BenchmarkSettings: Seq[Setting[_]] = {
+    LibrarySettings ++ Seq(
+      crossScalaVersions := Seq(scalaVersion.value),
+      publish / skip := true,
+    )
+  }
 }
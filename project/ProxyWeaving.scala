@@ -0,0 +1,50 @@
+/*
+ * Copyright © 2016 - 2021 Schlichtherle IT Services
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+import sbt.Keys._
+import sbt._
+
+object ProxyWeaving {
+
+  lazy val weaveProxies: TaskKey[File] =
+    taskKey[File]("Generates the proxy classes for the neuron types in the compiled classes into a JAR file.")
+
+  /**
+   * Adds the `weaveProxies` task to the given configuration.
+   * The task runs the `ProxyWeaver` of the given project on the class directory of the configuration.
+   * Add the resulting JAR file to the class path of the application to save the runtime cost of generating the
+   * proxy classes.
+   */
+  def ProxyWeavingSettings(weaver: ProjectReference, config: Configuration): Seq[Setting[_]] = {
+    inConfig(config)(Seq(
+      weaveProxies / artifactPath := {
+        val classifier = if (config == Compile) "proxies" else config.name + "-proxies"
+        crossTarget.value / s"${normalizedName.value}-${version.value}-$classifier.jar"
+      },
+      weaveProxies := {
+        val jar = (weaveProxies / artifactPath).value
+        val classpath = (fullClasspath.value ++ (weaver / Compile / fullClasspath).value).files.distinct
+        runner.value.run(
+          "global.namespace.neuron.di.weaver.ProxyWeaver",
+          classpath,
+          Seq(jar.getPath, classDirectory.value.getPath),
+          streams.value.log
+        ).get
+        jar
+      },
+    ))
+  }
+}
@@ -0,0 +1,142 @@
+/*
+ * Copyright © 2016 - 2021 Schlichtherle IT Services
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package global.namespace.neuron.di.weaver;
+
+import global.namespace.neuron.di.internal.RealIncubator;
+import global.namespace.neuron.di.java.BreedingException;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.net.MalformedURLException;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.*;
+import java.util.jar.JarEntry;
+import java.util.jar.JarFile;
+import java.util.jar.JarOutputStream;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Generates the proxy classes for the neuron types in a set of class directories and JAR files ahead of time and
+ * writes them to a JAR file.
+ * If this JAR file is added to the class path, then the proxy classes get loaded instead of generated when breeding
+ * neurons, which saves startup time.
+ * This is useful for neuron types which are not compiled by {@code javac}, e.g. Scala traits annotated with
+ * {@code @Neuron}, or which are provided by third party JAR files.
+ * As a side effect, the proxy classes become eligible for class data sharing archives.
+ * <p>
+ * Usage:
+ * <pre>{@code
+ * java -cp <class-path> global.namespace.neuron.di.weaver.ProxyWeaver <output-jar> <class-directory-or-jar>...
+ * }</pre>
+ * The class path must include Neuron DI and all dependencies of the given class directories and JAR files.
+ */
+public final class ProxyWeaver {
+
+    private static final String CLASS_SUFFIX = ".class";
+    private static final String PROXY_MARKER = "$$proxy";
+
+    private ProxyWeaver() {
+    }
+
+    public static void main(final String... args) throws IOException {
+        if (args.length < 2) {
+            System.err.printf("Usage: java %s <output-jar> <class-directory-or-jar>...%n", ProxyWeaver.class.getName());
+            System.exit(2);
+        }
+        final File output = new File(args[0]);
+        final int count = weave(output, Stream.of(args).skip(1).map(File::new).collect(Collectors.toList()));
+        System.out.printf("Generated %d proxy classes in %s.%n", count, output);
+    }
+
+    /**
+     * Generates the proxy classes for the neuron types in the given class directories and JAR files and writes them
+     * to the given output JAR file.
+     * Neuron types which cannot be proxied are skipped with a warning on the standard error stream.
+     *
+     * @return the number of generated proxy classes.
+     */
+    public static int weave(final File output, final List<File> inputs) throws IOException {
+        final SortedMap<String, byte[]> proxies = new TreeMap<>();
+        try (URLClassLoader loader = new URLClassLoader(urls(inputs), ProxyWeaver.class.getClassLoader())) {
+            for (final File input : inputs) {
+                for (final String className : classNames(input)) {
+                    final Class<?> clazz;
+                    try {
+                        clazz = Class.forName(className, false, loader);
+                    } catch (ClassNotFoundException | LinkageError e) {
+                        System.err.printf("Skipping %s: %s%n", className, e);
+                        continue;
+                    }
+                    try {
+                        RealIncubator.precompile(clazz, proxies::putIfAbsent);
+                    } catch (BreedingException e) {
+                        System.err.printf("Skipping %s: %s%n", className, e.getMessage());
+                    }
+                }
+            }
+        }
+        try (JarOutputStream out = new JarOutputStream(new FileOutputStream(output))) {
+            for (final Map.Entry<String, byte[]> proxy : proxies.entrySet()) {
+                out.putNextEntry(new JarEntry(proxy.getKey().replace('.', '/').concat(CLASS_SUFFIX)));
+                out.write(proxy.getValue());
+                out.closeEntry();
+            }
+        }
+        return proxies.size();
+    }
+
+    private static URL[] urls(final List<File> inputs) throws MalformedURLException {
+        final URL[] urls = new URL[inputs.size()];
+        for (int i = 0; i < urls.length; i++) {
+            urls[i] = inputs.get(i).toURI().toURL();
+        }
+        return urls;
+    }
+
+    private static List<String> classNames(final File input) throws IOException {
+        final List<String> resourceNames;
+        if (input.isDirectory()) {
+            final Path root = input.toPath();
+            try (Stream<Path> paths = Files.walk(root)) {
+                resourceNames = paths
+                        .filter(Files::isRegularFile)
+                        .map(path -> root.relativize(path).toString().replace(File.separatorChar, '/'))
+                        .collect(Collectors.toList());
+            } catch (UncheckedIOException e) {
+                throw e.getCause();
+            }
+        } else {
+            try (JarFile jar = new JarFile(input)) {
+                resourceNames = jar.stream().map(JarEntry::getName).collect(Collectors.toList());
+            }
+        }
+        return resourceNames
+                .stream()
+                .filter(name -> name.endsWith(CLASS_SUFFIX))
+                .filter(name -> !name.startsWith("META-INF/"))
+                .filter(name -> !name.endsWith("module-info.class") && !name.endsWith("package-info.class"))
+                .filter(name -> !name.contains(PROXY_MARKER))
+                .map(name -> name.substring(0, name.length() - CLASS_SUFFIX.length()).replace('/', '.'))
+                .sorted()
+                .collect(Collectors.toList());
+    }
+}
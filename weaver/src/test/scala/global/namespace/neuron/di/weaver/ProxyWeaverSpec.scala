@@ -0,0 +1,68 @@
+/*
+ * Copyright © 2016 - 2021 Schlichtherle IT Services
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package global.namespace.neuron.di.weaver
+
+import java.io.File
+import java.net.{URL, URLClassLoader}
+import java.nio.file.Files
+import java.util.Collections.singletonList
+import java.util.jar.JarFile
+
+import global.namespace.neuron.di.java.Incubator
+import global.namespace.neuron.di.weaver.ProxyWeaverSpec._
+import global.namespace.neuron.di.weaver.sample.Greeting
+import org.objectweb.asm.ClassVisitor
+import org.scalatest.matchers.should.Matchers._
+import org.scalatest.wordspec.AnyWordSpec
+
+import scala.jdk.CollectionConverters._
+
+class ProxyWeaverSpec extends AnyWordSpec {
+
+  "The proxy weaver" should {
+    "generate the proxy classes for the neuron types in a class directory" in {
+      val jar = File.createTempFile("proxies", ".jar")
+      try {
+        ProxyWeaver.weave(jar, singletonList(classes)) shouldBe 1
+        val entries = new JarFile(jar).stream.iterator.asScala.map(_.getName).toList
+        entries should have size 1
+        entries.head should startWith(classOf[Greeting].getName.replace('.', '/') + "$$shim$$proxy$")
+
+        // Load the sample neuron in isolation from the test class loader, so that the woven proxy class is visible:
+        val loader = new URLClassLoader(Array(classes, jar).map(_.toURI.toURL) ++ libraries, null)
+        val clazz = loader.loadClass(classOf[Greeting].getName)
+        val incubator = loader.loadClass(classOf[Incubator].getName)
+        val greeting = incubator.getMethod("breed", classOf[Class[_]]).invoke(null, clazz)
+        greeting.getClass.getName + ".class" shouldBe entries.head.replace('/', '.')
+        clazz.getMethod("message").invoke(greeting) shouldBe "Hello world!"
+      } finally {
+        Files.delete(jar.toPath)
+      }
+    }
+  }
+}
+
+private object ProxyWeaverSpec {
+
+  def classes: File = location(classOf[Greeting])
+
+  def libraries: Array[URL] = {
+    Array(classOf[Incubator], classOf[global.namespace.neuron.di.scala.Neuron], classOf[ClassVisitor], classOf[Option[_]])
+      .map(location(_).toURI.toURL)
+  }
+
+  private def location(clazz: Class[_]) = new File(clazz.getProtectionDomain.getCodeSource.getLocation.toURI)
+}